@@ -1,15 +1,22 @@
-import React, { useState } from 'react';
+import React, { useEffect, useState } from 'react';
 import axios from 'axios';
 import { useAuth } from '../context/AuthContext';
 import { X, Award, Coffee, ArrowRight, Loader2, AlertCircle, User } from 'lucide-react';
 
 const OrderForm = ({ drink, onClose, onOrderSuccess }) => {
     const { user } = useAuth();
-    const [isLoyal, setIsLoyal] = useState(false);
+    const [customer, setCustomer] = useState(null);
     const [submitting, setSubmitting] = useState(false);
     const [error, setError] = useState('');
     const [orderData, setOrderData] = useState({ size: 'Medium', sugar: '50%' });
 
+    useEffect(() => {
+        // Loyalty is worked out by the server from the account's order count
+        axios.get('/api/customers/me')
+            .then((response) => setCustomer(response.data))
+            .catch(() => setCustomer(null));
+    }, []);
+
     const handleSubmit = async (e) => {
         e.preventDefault();
         setSubmitting(true);
@@ -18,7 +25,6 @@ const OrderForm = ({ drink, onClose, onOrderSuccess }) => {
             await axios.post('/api/orders', {
                 customerName: user.username, // Use authenticated user's name
                 drinkId: drink.id,
-                isLoyal,
                 size: orderData.size,
                 sugar: orderData.sugar
             });
@@ -26,7 +32,8 @@ const OrderForm = ({ drink, onClose, onOrderSuccess }) => {
             onClose();
         } catch (error) {
             console.error('Error placing order:', error);
-            setError('Failed to place order. Please try again.');
+            // 429/503 carry a reason from admission control; show it as is
+            setError(error.response?.data?.message || 'Failed to place order. Please try again.');
         } finally {
             setSubmitting(false);
         }
@@ -102,19 +109,24 @@ const OrderForm = ({ drink, onClose, onOrderSuccess }) => {
                         </div>
                     </div>
 
-                    <div
-                        onClick={() => setIsLoyal(!isLoyal)}
-                        className={`cursor-pointer p-4 rounded-xl border transition-all flex items-center gap-3 ${isLoyal ? 'border-accent bg-accent/10' : 'border-white/10 bg-primary-bg hover:border-accent/50'
-                            }`}
-                    >
-                        <div className={`p-2 rounded-full ${isLoyal ? 'bg-accent text-black' : 'bg-white/10 text-gray-400'}`}>
-                            <Award className="w-5 h-5" />
-                        </div>
-                        <div>
-                            <p className="font-medium text-white">Loyalty Member</p>
-                            <p className="text-xs text-text-body">Get priority service (Demo)</p>
+                    {customer && (
+                        <div
+                            className={`p-4 rounded-xl border flex items-center gap-3 ${customer.loyal ? 'border-accent bg-accent/10' : 'border-white/10 bg-primary-bg'
+                                }`}
+                        >
+                            <div className={`p-2 rounded-full ${customer.loyal ? 'bg-accent text-black' : 'bg-white/10 text-gray-400'}`}>
+                                <Award className="w-5 h-5" />
+                            </div>
+                            <div>
+                                <p className="font-medium text-white">{customer.loyal ? 'Loyalty Member' : 'Loyalty Program'}</p>
+                                <p className="text-xs text-text-body">
+                                    {customer.loyal
+                                        ? 'This order gets priority service'
+                                        : `${customer.ordersUntilLoyal} more order${customer.ordersUntilLoyal === 1 ? '' : 's'} to priority service`}
+                                </p>
+                            </div>
                         </div>
-                    </div>
+                    )}
 
                     <div className="flex items-center gap-2 mt-4 px-1 p-4 bg-primary-bg rounded-lg border border-white/5">
                         <User className="w-5 h-5 text-accent" />
@@ -55,7 +55,7 @@ const QueueBoard = ({ refreshTrigger }) => {
                                 <p className="font-semibold text-sm text-white truncate">{order.customerName}</p>
                                 {order.loyal && <span className="text-[9px] bg-accent/20 text-accent px-1.5 py-0.5 rounded-full font-medium">VIP</span>}
                             </div>
-                            <p className="text-xs text-text-body truncate">{order.drink.name}</p>
+                            <p className="text-xs text-text-body truncate">{order.drinkName}</p>
                             <div className="flex justify-between items-center mt-1.5">
                                 <span className="text-[10px] text-text-body/60">Priority</span>
                                 <span className="text-xs font-bold text-accent">{order.priorityScore.toFixed(0)}</span>
@@ -81,13 +81,13 @@ const QueueBoard = ({ refreshTrigger }) => {
                             <div className="flex justify-between items-start mb-2">
                                 <div>
                                     <p className="font-bold text-base text-white">{order.customerName}</p>
-                                    <p className="text-sm text-text-body">{order.drink.name}</p>
+                                    <p className="text-sm text-text-body">{order.drinkName}</p>
                                     {order.loyal && <span className="text-[10px] bg-accent/20 text-accent px-2 py-0.5 rounded-full font-medium inline-block mt-1">VIP</span>}
                                 </div>
-                                {order.assignedBarista && (
+                                {order.baristaName && (
                                     <div className="text-right">
                                         <p className="text-[10px] text-text-body/60">Barista</p>
-                                        <p className="text-xs font-semibold text-accent">{order.assignedBarista.name}</p>
+                                        <p className="text-xs font-semibold text-accent">{order.baristaName}</p>
                                     </div>
                                 )}
                             </div>
@@ -117,7 +117,7 @@ const QueueBoard = ({ refreshTrigger }) => {
                             <div className="flex justify-between items-start mb-1.5">
                                 <div className="flex-1 min-w-0">
                                     <p className="font-semibold text-sm text-white truncate">{order.customerName}</p>
-                                    <p className="text-xs text-text-body truncate">{order.drink.name}</p>
+                                    <p className="text-xs text-text-body truncate">{order.drinkName}</p>
                                     {order.loyal && <span className="text-[9px] bg-accent/20 text-accent px-1.5 py-0.5 rounded-full font-medium inline-block mt-1">VIP</span>}
                                 </div>
                             </div>
@@ -11,31 +11,31 @@ export const AuthProvider = ({ children }) => {
     useEffect(() => {
         // Check local storage for session restoration
         const storedUser = localStorage.getItem('coffee_user');
-        // We use 'coffee_auth' to store the Basic Auth token (base64 of username:password)
-        const authToken = localStorage.getItem('coffee_auth');
+        // 'coffee_token' holds the signed access token issued by /api/auth/login
+        const authToken = localStorage.getItem('coffee_token');
+        localStorage.removeItem('coffee_auth'); // Old Basic credentials, no longer used
 
         if (storedUser && authToken) {
             setUser(JSON.parse(storedUser));
-            axios.defaults.headers.common['Authorization'] = `Basic ${authToken}`;
+            axios.defaults.headers.common['Authorization'] = `Bearer ${authToken}`;
+        } else {
+            localStorage.removeItem('coffee_user');
         }
         setLoading(false);
     }, []);
 
     const login = async (username, password) => {
         try {
-            // First verify credentials via the custom auth endpoint (optional, but good for custom logic)
+            // Password is checked once here; later requests carry the signed token
             const response = await axios.post('/api/auth/login', { username, password });
 
-            // If successful, setup Basic Auth for future requests
-            const basicAuthToken = btoa(`${username}:${password}`);
-            axios.defaults.headers.common['Authorization'] = `Basic ${basicAuthToken}`;
-
             const { token, username: returnedUsername, role } = response.data;
+            axios.defaults.headers.common['Authorization'] = `Bearer ${token}`;
             const userData = { username: returnedUsername, role };
 
             setUser(userData);
             localStorage.setItem('coffee_user', JSON.stringify(userData));
-            localStorage.setItem('coffee_auth', basicAuthToken);
+            localStorage.setItem('coffee_token', token);
 
             return true;
         } catch (error) {
@@ -62,7 +62,7 @@ export const AuthProvider = ({ children }) => {
     const logout = () => {
         setUser(null);
         localStorage.removeItem('coffee_user');
-        localStorage.removeItem('coffee_auth');
+        localStorage.removeItem('coffee_token');
         delete axios.defaults.headers.common['Authorization'];
     };
 
@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Compare time-to-ready and memory of the plain and fast-start backend images.
+#
+#   scripts/compare_startup.sh [runs]
+#
+# Needs Docker and a reachable MySQL (docker compose up -d db, or set
+# SPRING_DATASOURCE_URL). Each run starts a fresh container and polls the
+# readiness probe, which only passes once the warm start has rebuilt the queue.
+set -euo pipefail
+
+RUNS=${1:-5}
+DB_URL=${SPRING_DATASOURCE_URL:-jdbc:mysql://host.docker.internal:3306/coffee_db?allowPublicKeyRetrieval=true&useSSL=false&useCursorFetch=true&rewriteBatchedStatements=true}
+PORT=18081
+
+cd "$(dirname "$0")/.."
+docker build -q --target plain -t coffee-backend:plain . >/dev/null
+docker build -q -t coffee-backend:fast . >/dev/null
+
+measure() {
+    local image=$1
+    local name="coffee-startup-$$"
+    local start end
+    start=$(date +%s%N)
+    docker run -d --rm --name "$name" -p "$PORT:8081" --add-host=host.docker.internal:host-gateway \
+        -e SPRING_DATASOURCE_URL="$DB_URL" "$image" >/dev/null
+    until curl -fs "http://localhost:$PORT/actuator/health/readiness" >/dev/null 2>&1; do
+        if ! docker inspect "$name" >/dev/null 2>&1; then
+            echo "$image exited before becoming ready" >&2
+            return 1
+        fi
+        sleep 0.1
+    done
+    end=$(date +%s%N)
+    local mem
+    mem=$(docker stats --no-stream --format '{{.MemUsage}}' "$name" | cut -d/ -f1)
+    docker stop "$name" >/dev/null
+    printf '%-22s ready in %6d ms   memory %s\n' "$image" $(((end - start) / 1000000)) "$mem"
+}
+
+for i in $(seq 1 "$RUNS"); do
+    measure coffee-backend:plain
+    measure coffee-backend:fast
+done
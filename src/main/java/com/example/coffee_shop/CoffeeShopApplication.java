@@ -1,14 +1,22 @@
 package com.example.coffee_shop;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.Arrays;
+
 @SpringBootApplication
-@org.springframework.scheduling.annotation.EnableScheduling
 public class CoffeeShopApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CoffeeShopApplication.class, args);
+		SpringApplication application = new SpringApplication(CoffeeShopApplication.class);
+		if (Arrays.stream(args).anyMatch(arg -> arg.startsWith("--export="))) {
+			// Offline export (see ExportCommand): no web server and no background jobs
+			application.setWebApplicationType(WebApplicationType.NONE);
+			application.setAdditionalProfiles("export");
+		}
+		application.run(args);
 	}
 
 }
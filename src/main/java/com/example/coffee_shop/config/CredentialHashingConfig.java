@@ -0,0 +1,60 @@
+package com.example.coffee_shop.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password hashing: a BCrypt encoder whose cost is calibrated to this machine
+ * at startup, and a small dedicated pool to run it on so a burst of signups or
+ * logins can't tie up request threads.
+ */
+@Configuration
+@Slf4j
+public class CredentialHashingConfig {
+
+    private static final int MIN_COST = 10; // BCrypt default, never go below
+    private static final int MAX_COST = 16;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${coffee.auth.hashing.target-ms:250}") long targetMillis) {
+        int cost = calibrateCost(targetMillis);
+        log.info("BCrypt cost calibrated to {} for a {} ms target", cost, targetMillis);
+        return new BCryptPasswordEncoder(cost);
+    }
+
+    /**
+     * Largest cost whose hash still fits the target. Each step doubles the work,
+     * so one timed hash at the minimum cost is enough to extrapolate.
+     */
+    static int calibrateCost(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        probe.encode("warm-up"); // JIT the hot loop before timing
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double elapsedMillis = Math.max(1.0, (System.nanoTime() - start) / 1_000_000.0);
+        int extra = (int) Math.floor(Math.log(targetMillis / elapsedMillis) / Math.log(2));
+        return Math.max(MIN_COST, Math.min(MAX_COST, MIN_COST + extra));
+    }
+
+    /**
+     * Bounded pool for hashing and verification. When the queue is full new
+     * work is rejected straight away and the caller answers 503.
+     */
+    @Bean(name = "credentialHashingExecutor")
+    public ThreadPoolTaskExecutor credentialHashingExecutor(
+            @Value("${coffee.auth.hashing.threads:2}") int threads,
+            @Value("${coffee.auth.hashing.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("hashing-");
+        executor.initialize();
+        return executor;
+    }
+}
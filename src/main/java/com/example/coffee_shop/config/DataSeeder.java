@@ -8,10 +8,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.util.Arrays;
 
 @Configuration
+@Profile("!export") // the export CLI only reads
 @RequiredArgsConstructor
 @lombok.extern.slf4j.Slf4j
 public class DataSeeder {
@@ -20,6 +22,7 @@ public class DataSeeder {
     private final BaristaRepository baristaRepository;
 
     @Bean
+    @org.springframework.core.annotation.Order(1) // before WarmStartService rebuilds the live queue
     public CommandLineRunner initData() {
         return args -> {
             // Seed Drinks
@@ -33,9 +36,8 @@ public class DataSeeder {
                         new Drink(null, "Specialty (Mocha)", 6, 5.50, 0.08)));
             }
 
-            // Seed Baristas
-            // Seed Baristas
-            if (baristaRepository.findByStatus(com.example.coffee_shop.model.BaristaStatus.ACTIVE).isEmpty()) {
+            // Seed Baristas (exists probe only; the warm start loads the roster itself)
+            if (!baristaRepository.existsByStatus(com.example.coffee_shop.model.BaristaStatus.ACTIVE)) {
                 log.info("No active baristas found. Seeding baristas...");
                 baristaRepository.saveAll(Arrays.asList(
                         new Barista(null, "Alice", com.example.coffee_shop.model.BaristaStatus.ACTIVE, 0),
@@ -0,0 +1,92 @@
+package com.example.coffee_shop.config;
+
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offline export, e.g. for a nightly finance job:
+ *
+ * <pre>
+ * java -jar coffee_shop.jar --export=orders --output=orders.csv [--format=columnar] \
+ *     [--from=2026-01-01] [--to=2026-01-31] [--status=COMPLETED,CANCELLED]
+ * java -jar coffee_shop.jar --export=stats --output=stats.csv
+ * java -jar coffee_shop.jar --export=events --output=events.csv [--from=2026-01-01] [--to=2026-01-31]
+ * </pre>
+ *
+ * {@code --export} starts the app without a web server and with the "export"
+ * profile, which only reads: no scheduling (see SchedulingConfig), no seeding,
+ * warm start or rollup backfill, no schema update, and the journal and
+ * columnar history opened read-only. Run it from the plain jar, not with
+ * spring.aot.enabled, since AOT fixes profiles at build time. Writes straight
+ * to a FileChannel and exits once done.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class ExportCommand implements ApplicationRunner {
+
+    private final ExportService exportService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String what = option(args, "export");
+        if (what == null) {
+            return;
+        }
+        String output = option(args, "output");
+        if (output == null) {
+            throw new IllegalArgumentException("--export needs --output=<file>");
+        }
+        LocalDate from = date(option(args, "from"));
+        LocalDate to = date(option(args, "to"));
+        Path path = Path.of(output);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if ("orders".equals(what)) {
+                String format = option(args, "format");
+                String status = option(args, "status");
+                List<OrderStatus> statuses = status == null ? List.of()
+                        : Arrays.stream(status.split(",")).map(String::trim).map(OrderStatus::valueOf).toList();
+                long rows = exportService.exportOrders(from, to, statuses,
+                        format != null ? format : ExportService.FORMAT_CSV, channel);
+                log.info("Wrote {} orders to {}", rows, path.toAbsolutePath());
+            } else if ("stats".equals(what)) {
+                exportService.exportStats(from, to, channel);
+                log.info("Wrote stats to {}", path.toAbsolutePath());
+            } else if ("events".equals(what)) {
+                long events = exportService.exportEvents(from, to, channel);
+                log.info("Wrote {} order events to {}", events, path.toAbsolutePath());
+            } else {
+                throw new IllegalArgumentException("Unknown export: " + what + " (orders, stats or events)");
+            }
+        }
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static LocalDate date(String value) {
+        return value == null ? null : LocalDate.parse(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.coffee_shop.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (queue ticks, archiving, outbox relay, ...). Off for the
+ * offline export CLI, which must not compete with the running app for them;
+ * the rest of that profile's setup is in application.yml.
+ */
+@Configuration
+@EnableScheduling
+@Profile("!export")
+public class SchedulingConfig {
+}
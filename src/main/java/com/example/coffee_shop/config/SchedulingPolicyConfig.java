@@ -0,0 +1,62 @@
+package com.example.coffee_shop.config;
+
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.service.PriorityService;
+import com.example.coffee_shop.service.SchedulingPolicy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The built-in scheduling policies. Anything else implementing
+ * {@link SchedulingPolicy} that is registered as a bean shows up next to them.
+ */
+@Configuration
+public class SchedulingPolicyConfig {
+
+    @Bean
+    public SchedulingPolicy fifoPolicy() {
+        return SchedulingPolicy.scored("FIFO", (o, now, avg) -> 0.0);
+    }
+
+    @Bean
+    public SchedulingPolicy sjfPolicy() {
+        return SchedulingPolicy.scored("SJF", (o, now, avg) -> -o.getDrink().getPrepTimeMinutes());
+    }
+
+    @Bean
+    public SchedulingPolicy priorityPolicy(PriorityService priorityService) {
+        return SchedulingPolicy.scored("PRIORITY", (o, now, avg) -> priorityService.calculatePriority(o, now));
+    }
+
+    @Bean
+    public SchedulingPolicy throughputPolicy(PriorityService priorityService) {
+        return SchedulingPolicy.scored("THROUGHPUT",
+                (o, now, avg) -> priorityService.calculatePriorityWithThroughput(o, avg, now));
+    }
+
+    /**
+     * Throughput-aware priority, falling back to shortest-job-first once the
+     * average wait reaches the critical threshold.
+     */
+    @Bean
+    public SchedulingPolicy adaptivePolicy(PriorityService priorityService) {
+        SchedulingPolicy sjf = sjfPolicy();
+        SchedulingPolicy throughput = throughputPolicy(priorityService);
+        return new SchedulingPolicy() {
+            @Override
+            public String getName() {
+                return "ADAPTIVE";
+            }
+
+            @Override
+            public Order select(List<Order> candidates, LocalDateTime now, double runningAvgWait) {
+                return runningAvgWait >= priorityService.getSettings().criticalAvgWait()
+                        ? sjf.select(candidates, now, runningAvgWait)
+                        : throughput.select(candidates, now, runningAvgWait);
+            }
+        };
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.coffee_shop.config;
 
+import com.example.coffee_shop.service.TokenService;
+import com.example.coffee_shop.service.UserAuthorityCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,14 +23,28 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService,
+            UserAuthorityCache userAuthorityCache) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Heavy, caller-sized simulation work; must come before the public /api/simulation/**
+                        .requestMatchers(HttpMethod.POST, "/api/simulation/compare", "/api/simulation/workload")
+                        .hasRole("ADMIN")
                         .requestMatchers("/api/auth/**", "/api/menu", "/api/simulation/**", "/api/stats").permitAll() // Public
                                                                                                                       // access
+                        .requestMatchers("/actuator/health/**").permitAll() // Liveness/readiness probes
+                        .requestMatchers(HttpMethod.PUT, "/api/scheduling/**").hasRole("ADMIN")
+                        .requestMatchers("/api/customers/me", "/api/customers/me/**").authenticated()
+                        .requestMatchers("/api/customers/**").hasRole("ADMIN")
+                        .requestMatchers("/api/export/**").hasRole("ADMIN")
+                        .requestMatchers("/api/import/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
+                // Bearer tokens from /api/auth/login are the normal path; Basic stays for curl
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService, userAuthorityCache),
+                        BasicAuthenticationFilter.class)
                 .httpBasic(basic -> {
                 }); // Enable Basic Auth for testing if needed
 
@@ -46,9 +65,4 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
-
-    @Bean
-    public org.springframework.security.crypto.password.PasswordEncoder passwordEncoder() {
-        return new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder();
-    }
 }
@@ -0,0 +1,47 @@
+package com.example.coffee_shop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated, bounded pool for simulation jobs. Kept small and at low thread
+ * priority so analytics can never crowd out the live order path for CPU or
+ * database connections.
+ */
+@Configuration
+public class SimulationExecutorConfig {
+
+    @Bean(name = "simulationExecutor")
+    public ThreadPoolTaskExecutor simulationExecutor(
+            @Value("${coffee.simulation.jobs.max-concurrent:1}") int maxConcurrent,
+            @Value("${coffee.simulation.jobs.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity); // Beyond this, submissions are rejected
+        executor.setThreadNamePrefix("simulation-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fans a policy comparison out over one trace. Separate from the job pool so
+     * a comparison can use several cores while jobs stay serialized.
+     */
+    @Bean(name = "comparisonExecutor")
+    public ThreadPoolTaskExecutor comparisonExecutor(
+            @Value("${coffee.simulation.comparison.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(64);
+        executor.setThreadNamePrefix("comparison-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.initialize();
+        return executor;
+    }
+}
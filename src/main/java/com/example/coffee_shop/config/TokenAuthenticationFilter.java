@@ -0,0 +1,44 @@
+package com.example.coffee_shop.config;
+
+import com.example.coffee_shop.service.TokenService;
+import com.example.coffee_shop.service.UserAuthorityCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} requests from the signed
+ * token alone. Invalid or expired tokens are ignored here and end up as a 401
+ * from the authorization rules.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+    private final UserAuthorityCache userAuthorityCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            tokenService.verify(header.substring(BEARER_PREFIX.length()).trim())
+                    .ifPresent(username -> userAuthorityCache.getAuthorities(username)
+                            .ifPresent(authorities -> SecurityContextHolder.getContext().setAuthentication(
+                                    UsernamePasswordAuthenticationToken.authenticated(username, null,
+                                            authorities))));
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -2,98 +2,126 @@ package com.example.coffee_shop.controller;
 
 import com.example.coffee_shop.model.User;
 import com.example.coffee_shop.repository.UserRepository;
+import com.example.coffee_shop.service.CredentialService;
+import com.example.coffee_shop.service.TokenService;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/auth")
-@RequiredArgsConstructor
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final CredentialService credentialService;
+    private final TokenService tokenService;
+    private final Executor taskExecutor;
+
+    public AuthController(UserRepository userRepository,
+            CredentialService credentialService,
+            TokenService tokenService,
+            @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
+        this.userRepository = userRepository;
+        this.credentialService = credentialService;
+        this.tokenService = tokenService;
+        this.taskExecutor = taskExecutor;
+    }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody AuthRequest request) {
+    public CompletableFuture<ResponseEntity<?>> signup(@RequestBody AuthRequest request) {
         // Validate required fields
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Username is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Username is required")));
         }
         if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Email is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Email is required")));
         }
         if (request.getPassword() == null || request.getPassword().trim().isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Password is required"));
-        }
-
-        // Check if username already exists
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "Username already taken"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Password is required")));
         }
 
-        // Check if email already exists
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "Email already registered"));
+        try {
+            // Hash off the request thread, then a single INSERT on the app task
+            // executor so the hashing pool only hashes; the unique constraints
+            // on username and email catch duplicates
+            return credentialService.encode(request.getPassword()).thenApplyAsync(hash -> {
+                User user = new User();
+                user.setUsername(request.getUsername());
+                user.setEmail(request.getEmail());
+                user.setPassword(hash);
+                user.setRole("USER");
+                try {
+                    userRepository.save(user);
+                } catch (DataIntegrityViolationException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("message", "Username or email already registered"));
+                }
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(Map.of("message", "User registered successfully"));
+            }, taskExecutor);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(busy());
         }
-
-        // Create new user with BCrypt encoded password
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole("USER");
-
-        userRepository.save(user);
-
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(Map.of("message", "User registered successfully"));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody AuthRequest request) {
         // Validate required fields
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Username is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Username is required")));
         }
         if (request.getPassword() == null || request.getPassword().trim().isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("message", "Password is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Password is required")));
         }
 
         // Find user by username
         Optional<User> userOpt = userRepository.findByUsername(request.getUsername());
         if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Invalid credentials"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Invalid credentials")));
         }
 
         User user = userOpt.get();
 
-        // Validate password using BCrypt
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Invalid credentials"));
+        try {
+            // Validate password using BCrypt on the hashing pool
+            return credentialService.matches(request.getPassword(), user.getPassword()).thenApply(matches -> {
+                if (!matches) {
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(Map.of("message", "Invalid credentials"));
+                }
+                // Login successful
+                return ResponseEntity.ok(Map.of(
+                        "message", "Login successful",
+                        "username", user.getUsername(),
+                        "role", user.getRole(),
+                        "token", tokenService.issue(user),
+                        "expiresIn", tokenService.getTtlSeconds()));
+            });
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(busy());
         }
+    }
 
-        // Login successful
-        return ResponseEntity.ok(Map.of(
-                "message", "Login successful",
-                "username", user.getUsername(),
-                "role", user.getRole(),
-                "token", "dummy-jwt-token-" + user.getId()));
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", "Too many sign-in requests, please retry shortly"));
     }
 
     @Data
@@ -0,0 +1,61 @@
+package com.example.coffee_shop.controller;
+
+import com.example.coffee_shop.dto.CustomerDTO;
+import com.example.coffee_shop.dto.OrderHistoryPageDTO;
+import com.example.coffee_shop.service.CustomerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Customer profile and order history. /me is the signed-in account; looking
+ * up anyone else needs ADMIN (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+public class CustomerController {
+
+    private final CustomerService customerService;
+
+    @GetMapping("/me")
+    public ResponseEntity<CustomerDTO> getMe(Principal principal) {
+        return ResponseEntity.ok(customerService.getOrEmpty(principal.getName()));
+    }
+
+    @GetMapping("/me/orders")
+    public ResponseEntity<?> getMyOrders(Principal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        return getOrders(principal.getName(), beforeTime, beforeId, size);
+    }
+
+    @GetMapping("/{username}")
+    public ResponseEntity<?> getCustomer(@PathVariable String username) {
+        return customerService.getCustomer(username)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Customer not found: " + username)));
+    }
+
+    @GetMapping("/{username}/orders")
+    public ResponseEntity<?> getOrders(@PathVariable String username,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            OrderHistoryPageDTO page = customerService.getOrders(username, beforeTime, beforeId, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
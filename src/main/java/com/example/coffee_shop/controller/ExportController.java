@@ -0,0 +1,86 @@
+package com.example.coffee_shop.controller;
+
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming bulk exports for finance and analytics. Responses are written
+ * page by page as they are read; nothing is buffered per request beyond one
+ * page. The same exports are available offline, see ExportCommand.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ExportService exportService;
+
+    @GetMapping("/orders")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<OrderStatus> status,
+            @RequestParam(defaultValue = ExportService.FORMAT_CSV) String format) {
+        try {
+            ExportService.checkFormat(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "'to' must not be before 'from'"));
+        }
+        boolean csv = ExportService.FORMAT_CSV.equals(format);
+        StreamingResponseBody body = out -> exportService.exportOrders(from, to, status, format,
+                Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + (csv ? "csv" : "cfx") + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> exportStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "'to' must not be before 'from'"));
+        }
+        StreamingResponseBody body = out -> exportService.exportStats(from, to, Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"stats.csv\"")
+                .body(body);
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<?> exportEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "'to' must not be before 'from'"));
+        }
+        StreamingResponseBody body = out -> exportService.exportEvents(from, to, Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.csv\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.coffee_shop.controller;
+
+import com.example.coffee_shop.dto.ImportReportDTO;
+import com.example.coffee_shop.service.OrderImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk import of finished orders for POS replay and backfill. The request
+ * body is the raw file (not multipart) and is parsed as it arrives.
+ */
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final OrderImportService orderImportService;
+
+    @PostMapping("/orders")
+    public ResponseEntity<?> importOrders(HttpServletRequest request,
+            @RequestParam(required = false) String format) throws IOException {
+        String resolved = format != null ? format.toLowerCase(Locale.ROOT) : formatOf(request.getContentType());
+        try {
+            OrderImportService.checkFormat(resolved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "Send text/csv or application/x-ndjson, or pass ?format=csv|ndjson"));
+        }
+        ImportReportDTO report = orderImportService.importOrders(request.getInputStream(), resolved);
+        if (report.getFailure() != null) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(report);
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    private static String formatOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("csv")) {
+            return OrderImportService.FORMAT_CSV;
+        }
+        if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json")) {
+            return OrderImportService.FORMAT_NDJSON;
+        }
+        return null;
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.coffee_shop.controller;
 
+import com.example.coffee_shop.dto.OrderEtaDTO;
+import com.example.coffee_shop.dto.OrderResponse;
 import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.service.OrderAdmissionService;
+import com.example.coffee_shop.service.OrderEventJournal;
 import com.example.coffee_shop.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -15,32 +24,61 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderAdmissionService orderAdmissionService;
 
     @PostMapping
-    public ResponseEntity<Order> placeOrder(@RequestBody OrderRequest request) {
-        Order order = orderService.placeOrder(request.getCustomerName(), request.getDrinkId(), request.isLoyal());
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> placeOrder(@RequestBody OrderRequest request, Principal principal,
+            HttpServletRequest httpRequest) {
+        String clientKey = principal != null ? principal.getName() : httpRequest.getRemoteAddr();
+        OrderAdmissionService.Decision decision = orderAdmissionService.admit(clientKey, request.getDrinkId());
+        if (decision.outcome() == OrderAdmissionService.Outcome.RATE_LIMITED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                    .body(Map.of("message", "Too many orders, please slow down"));
+        }
+        if (decision.outcome() == OrderAdmissionService.Outcome.OVERLOADED) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                    .body(Map.of("message", String.format(
+                            "The queue is full right now (about %.0f min wait), please try again shortly",
+                            decision.predictedWaitMinutes())));
+        }
+        Order order = orderService.placeOrder(request.getCustomerName(), request.getDrinkId(),
+                principal != null ? principal.getName() : null);
+        return ResponseEntity.ok(OrderResponse.from(order));
     }
 
+    // Order responses are flat DTOs. JSON by default; machine clients can ask for
+    // application/cbor or application/x-jackson-smile via Accept.
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrder(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.getOrder(id));
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(OrderResponse.from(orderService.getOrder(id)));
+    }
+
+    @GetMapping("/{id}/eta")
+    public ResponseEntity<OrderEtaDTO> getEta(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getEta(id));
+    }
+
+    // Audit trail from the order event journal, oldest first
+    @GetMapping("/{id}/events")
+    public ResponseEntity<List<OrderEventJournal.OrderEvent>> getOrderEvents(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getOrderEvents(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<OrderResponse>> getAllOrders() {
+        return ResponseEntity.ok(orderService.getAllOrders().stream().map(OrderResponse::from).toList());
     }
 
     @PutMapping("/{id}/pickup")
-    public ResponseEntity<Order> pickupOrder(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.pickupOrder(id));
+    public ResponseEntity<OrderResponse> pickupOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(OrderResponse.from(orderService.pickupOrder(id)));
     }
 
     @Data
     public static class OrderRequest {
         private String customerName;
         private Long drinkId;
-        private boolean isLoyal;
     }
 }
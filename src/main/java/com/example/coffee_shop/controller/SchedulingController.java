@@ -0,0 +1,65 @@
+package com.example.coffee_shop.controller;
+
+import com.example.coffee_shop.service.PriorityService;
+import com.example.coffee_shop.service.SchedulingPolicyRegistry;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Runtime control of the scheduler: which policy is active for the live queue
+ * and the simulator, and the priority weights they score with. Changes apply
+ * from the next decision; reads are open to any signed-in user, writes need
+ * ADMIN (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/scheduling")
+@RequiredArgsConstructor
+public class SchedulingController {
+
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final PriorityService priorityService;
+
+    @GetMapping("/policies")
+    public ResponseEntity<?> getPolicies() {
+        return ResponseEntity.ok(Map.of(
+                "available", policyRegistry.getPolicyNames(),
+                "active", policyRegistry.getActiveNames()));
+    }
+
+    @PutMapping("/policies/active")
+    public ResponseEntity<?> activatePolicy(@RequestBody PolicyRequest request) {
+        try {
+            SchedulingPolicyRegistry.Scope scope = request.getScope() == null
+                    ? SchedulingPolicyRegistry.Scope.LIVE
+                    : SchedulingPolicyRegistry.Scope.valueOf(request.getScope().toUpperCase());
+            policyRegistry.activate(scope, request.getPolicy());
+            return ResponseEntity.ok(Map.of("active", policyRegistry.getActiveNames()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/weights")
+    public ResponseEntity<PriorityService.Settings> getWeights() {
+        return ResponseEntity.ok(priorityService.getSettings());
+    }
+
+    @PutMapping("/weights")
+    public ResponseEntity<?> updateWeights(@RequestBody PriorityService.Settings settings) {
+        try {
+            return ResponseEntity.ok(priorityService.updateSettings(settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Data
+    public static class PolicyRequest {
+        private String scope; // "live" (default) or "simulation"
+        private String policy;
+    }
+}
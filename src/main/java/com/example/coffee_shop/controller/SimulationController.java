@@ -1,10 +1,25 @@
 package com.example.coffee_shop.controller;
 
+import com.example.coffee_shop.dto.PolicyComparisonDTO;
+import com.example.coffee_shop.dto.SimulationJobDTO;
+import com.example.coffee_shop.dto.WorkloadSpec;
+import com.example.coffee_shop.service.PolicyComparisonService;
+import com.example.coffee_shop.service.SimulationJobService;
 import com.example.coffee_shop.service.SimulationService;
+import com.example.coffee_shop.service.WorkloadGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -13,21 +28,122 @@ import java.util.Map;
 public class SimulationController {
 
     private final SimulationService simulationService;
+    private final SimulationJobService simulationJobService;
+    private final PolicyComparisonService policyComparisonService;
+    private final WorkloadGenerator workloadGenerator;
+
+    // Shorthands for POST /jobs: queued on the bounded job executor, never run on the request thread
 
     @PostMapping("/run")
-    public ResponseEntity<String> runSimulation() {
-        String result = simulationService.runSimulation();
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> runSimulation(@RequestParam(required = false) Long seed) {
+        return submitJob(SimulationJobService.TYPE_RUN, seed);
     }
 
     @PostMapping("/process")
-    public ResponseEntity<String> processOrders() {
-        String result = simulationService.processSimulationOrders();
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> processOrders() {
+        return submitJob(SimulationJobService.TYPE_PROCESS, null);
     }
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         return ResponseEntity.ok(simulationService.getSimulationStats());
     }
+
+    // Asynchronous jobs: 202 with the job, then poll, stream or cancel it
+
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(@RequestParam(defaultValue = SimulationJobService.TYPE_RUN) String type,
+            @RequestParam(required = false) Long seed) {
+        try {
+            SimulationJobDTO job = simulationJobService.submit(type, seed);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/simulation/jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return tooBusy();
+        }
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<SimulationJobDTO>> getJobs() {
+        return ResponseEntity.ok(simulationJobService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<SimulationJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.of(simulationJobService.getJob(id));
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String id) {
+        return ResponseEntity.of(simulationJobService.subscribe(id));
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<SimulationJobDTO> cancelJob(@PathVariable String id) {
+        return ResponseEntity.of(simulationJobService.cancel(id));
+    }
+
+    // In-memory comparison of scheduling policies over one arrival trace (admin only, runs on the job executor)
+
+    @PostMapping("/compare")
+    public ResponseEntity<?> comparePolicies(@RequestBody(required = false) ComparisonRequest request) {
+        ComparisonRequest r = request != null ? request : new ComparisonRequest();
+        try {
+            PolicyComparisonDTO result = policyComparisonService.compare(r.getPolicies(), r.getSource(),
+                    r.getOrders(), r.getLambda(), r.getSeed(), r.getWorkload());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (TaskRejectedException e) {
+            return tooBusy();
+        }
+    }
+
+    /**
+     * Stream a generated workload as CSV without holding it in memory, e.g.
+     * {@code curl -o workload.csv}. Admin only; the rows are written from the
+     * simulation job executor, so at most as many streams run as jobs. The
+     * seed used is echoed in a header.
+     */
+    @PostMapping(value = "/workload", produces = "text/csv")
+    public ResponseEntity<?> generateWorkload(@RequestBody(required = false) WorkloadSpec spec,
+            HttpServletResponse response) {
+        WorkloadGenerator.Workload workload;
+        try {
+            workload = workloadGenerator.prepare(spec != null ? spec : new WorkloadSpec());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", e.getMessage()));
+        }
+        try {
+            simulationJobService.runBounded(() -> {
+                response.setContentType("text/csv");
+                response.setHeader("X-Workload-Seed", Long.toString(workload.getSeed()));
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"workload.csv\"");
+                return workloadGenerator.writeCsv(workload, response.getOutputStream());
+            });
+        } catch (TaskRejectedException e) {
+            return tooBusy(); // Rejected before anything was written
+        }
+        return null; // Response already written
+    }
+
+    private static ResponseEntity<?> tooBusy() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("message", "Too many simulation jobs in progress, try again later"));
+    }
+
+    @Data
+    public static class ComparisonRequest {
+        private List<String> policies; // Default: all
+        private String source = PolicyComparisonService.SOURCE_GENERATED; // or "recorded", "workload"
+        private int orders = 100;
+        private double lambda = 0.60;
+        private Long seed; // Same seed, same trace
+        private WorkloadSpec workload; // Only for "workload"; carries its own seed
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerDTO {
+    private String username;
+    private long orderCount;
+    private boolean loyal; // Applies to the customer's next order
+    private long ordersUntilLoyal;
+    private LocalDateTime firstOrderTime;
+    private LocalDateTime lastOrderTime;
+}
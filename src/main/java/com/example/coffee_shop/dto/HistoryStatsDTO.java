@@ -0,0 +1,30 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryStatsDTO {
+
+    // Requested range (inclusive, by order date)
+    private LocalDate from;
+    private LocalDate to;
+
+    private long ordersCompleted;
+    private double avgWaitTime;
+    private double weightedAvgWait;
+    private double maxWaitTime;
+    private long timeoutCount;
+    private double timeoutRate;
+    private long loyalOrders;
+
+    // How much of the columnar store had to be touched
+    private int segmentsScanned;
+}
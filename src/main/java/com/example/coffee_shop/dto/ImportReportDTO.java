@@ -0,0 +1,38 @@
+package com.example.coffee_shop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1, not counting a CSV
+ * header; only the first errors are listed, all are counted in rejected.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // failure only when the import stopped early
+public class ImportReportDTO {
+    private String format; // "csv" or "ndjson"
+    private long rowsRead;
+    private long imported;
+    private long duplicates; // already imported before (same key), skipped
+    private long rejected;
+    private long elapsedMillis;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private String failure;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEtaDTO {
+    private Long orderId;
+    private String status;
+    private LocalDateTime predictedReadyTime; // Null once ready, or if no barista is on shift
+    private long ordersAhead; // Waiting orders expected to be served first
+    private double minutesRemaining;
+}
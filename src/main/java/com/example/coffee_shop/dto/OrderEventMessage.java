@@ -0,0 +1,26 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event as delivered to outbox subscribers and sinks. Delivery is
+ * at-least-once, so consumers should de-duplicate on {@code eventId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventMessage {
+    private Long eventId;
+    private Long orderId;
+    private String eventType;
+    private String orderStatus;
+    private Long baristaId;
+    private double priorityScore;
+    private LocalDateTime occurredAt;
+}
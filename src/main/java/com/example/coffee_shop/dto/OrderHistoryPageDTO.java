@@ -0,0 +1,23 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a customer's orders, newest first. Pass nextBeforeTime and
+ * nextBeforeId back to get the following page; both are null on the last one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryPageDTO {
+    private List<OrderResponse> orders;
+    private LocalDateTime nextBeforeTime;
+    private Long nextBeforeId;
+}
@@ -0,0 +1,55 @@
+package com.example.coffee_shop.dto;
+
+import com.example.coffee_shop.model.Order;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat wire shape of an order: drink and barista are reduced to id and name
+ * instead of nesting the full entities in every row. Null fields are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderResponse {
+    private Long id;
+    private String customerName;
+    private Long drinkId;
+    private String drinkName;
+    private int prepTimeMinutes;
+    private String status;
+    private double priorityScore;
+    private boolean loyal;
+    private LocalDateTime orderTime;
+    private LocalDateTime estimatedCompletionTime;
+    private LocalDateTime completedTime;
+    private LocalDateTime predictedReadyTime;
+    private Long baristaId;
+    private String baristaName;
+
+    public static OrderResponse from(Order order) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .customerName(order.getCustomerName())
+                .drinkId(order.getDrink().getId())
+                .drinkName(order.getDrink().getName())
+                .prepTimeMinutes(order.getDrink().getPrepTimeMinutes())
+                .status(order.getStatus().name())
+                .priorityScore(order.getPriorityScore())
+                .loyal(order.isLoyal())
+                .orderTime(order.getOrderTime())
+                .estimatedCompletionTime(order.getEstimatedCompletionTime())
+                .completedTime(order.getCompletedTime())
+                .predictedReadyTime(order.getPredictedReadyTime())
+                .baristaId(order.getAssignedBarista() != null ? order.getAssignedBarista().getId() : null)
+                .baristaName(order.getAssignedBarista() != null ? order.getAssignedBarista().getName() : null)
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyComparisonDTO {
+
+    private String traceSource; // "generated" or "recorded"
+    private int traceSize;
+    private Long seed; // Only for generated traces
+    private long elapsedMillis;
+
+    private List<PolicyReport> reports;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PolicyReport {
+        private String policy;
+        private long elapsedMillis;
+        private StatsDTO stats;
+    }
+}
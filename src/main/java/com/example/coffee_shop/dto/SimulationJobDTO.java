@@ -0,0 +1,31 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationJobDTO {
+    private String id;
+    private String type; // "run" or "process"
+    private String status; // QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+
+    // Progress
+    private int ordersGenerated;
+    private int ordersProcessed;
+    private int totalOrders;
+    private double runningAvgWait;
+
+    private String result; // Only once COMPLETED or CANCELLED
+    private String error; // Only when FAILED
+
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,43 @@
+package com.example.coffee_shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shape of a synthetic workload: a time-of-day arrival rate, repeated over a
+ * number of days with a per-day factor, plus the order mix and loyalty rate.
+ * Every field is optional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadSpec {
+
+    private LocalDate startDate; // Default: today
+    private int days = 1;
+    private List<RatePoint> rateProfile; // Default: weekday rush hours, see WorkloadGenerator
+    private List<Double> dayFactors; // Cycled per day, e.g. 7 values for a weekly pattern
+    private double scale = 1.0; // Multiplies every rate
+    private Map<Long, Double> drinkMix; // Drink id -> weight; default: Drink.demandFrequency
+    private double loyalRate = 0.30;
+    private Long maxOrders; // Stop early; never above coffee.simulation.workload.max-orders
+    private Long seed; // Same seed, same arrivals
+
+    /**
+     * Orders per minute at a time of day. Rates are interpolated linearly
+     * between points and are zero before the first and after the last.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RatePoint {
+        private LocalTime time;
+        private double perMinute;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.coffee_shop.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per ordering account, keyed by username. The counters are bumped in
+ * place on every order so loyalty never needs a history query.
+ */
+@Entity
+@Table(name = "customers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Customer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String username;
+
+    private long orderCount = 0;
+
+    private LocalDateTime firstOrderTime;
+    private LocalDateTime lastOrderTime;
+}
@@ -0,0 +1,30 @@
+package com.example.coffee_shop.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per order brought in by the bulk import, keyed by a hash of its
+ * source identity (see OrderImportService). Kept apart from the order tables
+ * so it still holds once the archiver has moved the order on, and lets a
+ * retried or replayed upload skip the rows that already made it in.
+ */
+@Entity
+@Table(name = "coffee_import_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportKey {
+    @Id
+    @Column(length = 64)
+    private String importKey; // hex SHA-256
+
+    private LocalDateTime importedAt;
+}
@@ -8,7 +8,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "coffee_orders") // 'order' is a reserved keyword in SQL
+// 'order' is a reserved keyword in SQL. The table only holds live and recently finished
+// orders; OrderArchiver moves terminal ones to coffee_order_history.
+@Table(name = "coffee_orders", indexes = {
+        @Index(name = "idx_orders_status_priority", columnList = "status, priorityScore"),
+        @Index(name = "idx_orders_customer_time", columnList = "customerId, orderTime")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +24,9 @@ public class Order {
 
     private String customerName;
 
+    // Ordering account (see Customer); null for simulated orders
+    private Long customerId;
+
     @ManyToOne(optional = false)
     @JoinColumn(name = "drink_id", nullable = false)
     private Drink drink;
@@ -39,12 +47,16 @@ public class Order {
     // For fairness logic: how many times was this order skipped?
     private int timesSkipped = 0;
 
-    // For loyalty priority calculation
+    // For loyalty priority calculation; set by the server from the customer's counters
     private boolean isLoyal = false;
 
     // Hard deadline (10 mins from orderTime)
     private LocalDateTime hardDeadline;
 
+    // Live ETA from the queue index, filled in for API responses only
+    @Transient
+    private LocalDateTime predictedReadyTime;
+
     @PrePersist
     protected void onCreate() {
         if (this.orderTime == null) {
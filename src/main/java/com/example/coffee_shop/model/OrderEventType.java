@@ -0,0 +1,14 @@
+package com.example.coffee_shop.model;
+
+/**
+ * Order lifecycle transitions recorded in the order event journal. The ordinal
+ * is stored on disk, so only ever append new values.
+ */
+public enum OrderEventType {
+    PLACED,
+    RESCORED,
+    ASSIGNED,
+    READY,
+    PICKED_UP,
+    RESET // Sent back to WAITING by the scheduler's consistency cleanup
+}
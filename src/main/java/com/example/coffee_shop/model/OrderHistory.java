@@ -0,0 +1,79 @@
+package com.example.coffee_shop.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a terminal (COMPLETED / CANCELLED) order. Rows are moved here
+ * from coffee_orders by {@link com.example.coffee_shop.service.OrderArchiver}
+ * with an INSERT ... SELECT, keeping the original id, and are never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "coffee_order_history", indexes = {
+        @Index(name = "idx_order_history_completed_time", columnList = "completedTime"),
+        @Index(name = "idx_order_history_order_time", columnList = "orderTime"),
+        @Index(name = "idx_order_history_customer_time", columnList = "customerId, orderTime")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistory {
+    @Id
+    private Long id; // Same id the order had in coffee_orders
+
+    private String customerName;
+
+    private Long customerId;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "drink_id", nullable = false)
+    private Drink drink;
+
+    @ManyToOne
+    @JoinColumn(name = "barista_id")
+    private Barista assignedBarista;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private double priorityScore;
+
+    private LocalDateTime orderTime;
+    private LocalDateTime estimatedCompletionTime;
+    private LocalDateTime completedTime;
+
+    private int timesSkipped;
+
+    private boolean isLoyal;
+
+    private LocalDateTime hardDeadline;
+
+    private LocalDateTime archivedTime;
+
+    /**
+     * Detached {@link Order} view so analytics can treat hot and cold rows alike.
+     */
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerName(customerName);
+        order.setCustomerId(customerId);
+        order.setDrink(drink);
+        order.setAssignedBarista(assignedBarista);
+        order.setStatus(status);
+        order.setPriorityScore(priorityScore);
+        order.setOrderTime(orderTime);
+        order.setEstimatedCompletionTime(estimatedCompletionTime);
+        order.setCompletedTime(completedTime);
+        order.setTimesSkipped(timesSkipped);
+        order.setLoyal(isLoyal);
+        order.setHardDeadline(hardDeadline);
+        return order;
+    }
+}
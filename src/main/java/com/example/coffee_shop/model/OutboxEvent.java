@@ -0,0 +1,36 @@
+package com.example.coffee_shop.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row: written in the same transaction as the order
+ * change it describes, and deleted by OutboxRelay once every sink has taken
+ * it.
+ */
+@Entity
+@Table(name = "coffee_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderEventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private Long baristaId;
+    private double priorityScore;
+    private LocalDateTime createdTime;
+}
@@ -0,0 +1,42 @@
+package com.example.coffee_shop.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated counters for one 30-minute slot of one day, keyed by
+ * {@code epochDay * 48 + slotIndex}. Updated in place by upserts as orders
+ * arrive and complete; orders are bucketed by their order time.
+ *
+ * The key has no store component because the app runs a single store: one
+ * queue, one barista roster. Serving several stores would mean adding a
+ * store id to the key and to every rollup query.
+ */
+@Entity
+@Table(name = "time_slot_rollups", indexes = {
+        @Index(name = "idx_rollups_epoch_day", columnList = "epochDay")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSlotRollup {
+    public static final int SLOTS_PER_DAY = 48;
+
+    @Id
+    private Long slotKey;
+
+    private long epochDay;
+    private int slotIndex; // 0 = 00:00-00:30 ... 47 = 23:30-00:00
+
+    private long arrivals;
+    private long completions;
+    private long waitSum; // minutes
+    private long waitMax; // minutes
+    private long timeouts;
+    private long fairnessViolations;
+}
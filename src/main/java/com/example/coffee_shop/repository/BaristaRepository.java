@@ -2,12 +2,31 @@ package com.example.coffee_shop.repository;
 
 import com.example.coffee_shop.model.Barista;
 import com.example.coffee_shop.model.BaristaStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import com.example.coffee_shop.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface BaristaRepository extends JpaRepository<Barista, Long> {
+    // Cached query results are invalidated by Hibernate whenever a barista row changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Barista> findByStatus(BaristaStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByStatus(BaristaStatus status);
+
+    // Load = prep minutes of the order the barista is working on. A bulk HQL update,
+    // so Hibernate evicts the cached Barista region itself.
+    @Modifying
+    @Query("update Barista b set b.currentLoadMinutes = coalesce((select sum(d.prepTimeMinutes) from Order o "
+            + "join o.drink d where o.assignedBarista = b and o.status = :preparing), 0) where b.status = :status")
+    int syncLoadMinutes(@Param("status") BaristaStatus status, @Param("preparing") OrderStatus preparing);
 }
@@ -0,0 +1,22 @@
+package com.example.coffee_shop.repository;
+
+import com.example.coffee_shop.model.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    Optional<Customer> findByUsername(String username);
+
+    // In-place increment, so concurrent orders from one account never lose a count
+    @Modifying
+    @Query("update Customer c set c.orderCount = c.orderCount + 1, c.lastOrderTime = :at, "
+            + "c.firstOrderTime = coalesce(c.firstOrderTime, :at) where c.id = :id")
+    int recordOrder(@Param("id") Long id, @Param("at") LocalDateTime at);
+}
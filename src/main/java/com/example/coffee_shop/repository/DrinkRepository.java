@@ -1,9 +1,19 @@
 package com.example.coffee_shop.repository;
 
 import com.example.coffee_shop.model.Drink;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DrinkRepository extends JpaRepository<Drink, Long> {
+
+    // The menu is read on every page load and rarely changes
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Drink> findAll();
 }
@@ -0,0 +1,18 @@
+package com.example.coffee_shop.repository;
+
+import com.example.coffee_shop.model.Order;
+
+import java.util.List;
+
+/**
+ * Per-row writes that the scheduler tick sends as a single JDBC batch instead
+ * of one statement per order. Bypasses the persistence context: callers pass
+ * entities they loaded read-only and must not flush them.
+ */
+public interface OrderBatchUpdates {
+
+    void updatePriorityScores(List<Order> orders);
+
+    /** Writes status, barista and estimated completion time. */
+    void assignBaristas(List<Order> orders);
+}
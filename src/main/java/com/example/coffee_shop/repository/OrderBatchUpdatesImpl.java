@@ -0,0 +1,44 @@
+package com.example.coffee_shop.repository;
+
+import com.example.coffee_shop.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Runs on the JPA transaction's connection. With rewriteBatchedStatements=true
+// Connector/J ships each batch in one round-trip.
+@RequiredArgsConstructor
+class OrderBatchUpdatesImpl implements OrderBatchUpdates {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void updatePriorityScores(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("update coffee_orders set priority_score = ? where id = ?", orders, orders.size(),
+                (ps, order) -> {
+                    ps.setDouble(1, order.getPriorityScore());
+                    ps.setLong(2, order.getId());
+                });
+    }
+
+    @Override
+    public void assignBaristas(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "update coffee_orders set status = ?, barista_id = ?, estimated_completion_time = ? where id = ?",
+                orders, orders.size(),
+                (ps, order) -> {
+                    ps.setString(1, order.getStatus().name());
+                    ps.setLong(2, order.getAssignedBarista().getId());
+                    ps.setTimestamp(3, Timestamp.valueOf(order.getEstimatedCompletionTime()));
+                    ps.setLong(4, order.getId());
+                });
+    }
+}
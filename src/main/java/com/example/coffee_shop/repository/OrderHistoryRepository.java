@@ -0,0 +1,35 @@
+package com.example.coffee_shop.repository;
+
+import com.example.coffee_shop.model.OrderHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderHistoryRepository extends JpaRepository<OrderHistory, Long> {
+
+    // Set-based copy of a batch of hot rows; the caller deletes them from coffee_orders
+    // in the same transaction.
+    @Modifying
+    @Query(value = "INSERT INTO coffee_order_history (id, customer_name, customer_id, drink_id, barista_id, "
+            + "status, priority_score, order_time, estimated_completion_time, completed_time, times_skipped, "
+            + "is_loyal, hard_deadline, archived_time) "
+            + "SELECT id, customer_name, customer_id, drink_id, barista_id, status, priority_score, order_time, "
+            + "estimated_completion_time, completed_time, times_skipped, is_loyal, hard_deadline, :archivedAt "
+            + "FROM coffee_orders WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Keyset page of one customer's archived orders, newest first (idx_order_history_customer_time)
+    @Query("select h from OrderHistory h join fetch h.drink left join fetch h.assignedBarista "
+            + "where h.customerId = :customerId and (h.orderTime < :beforeTime "
+            + "or (h.orderTime = :beforeTime and h.id < :beforeId)) order by h.orderTime desc, h.id desc")
+    List<OrderHistory> findCustomerPage(@Param("customerId") Long customerId,
+            @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId, Limit limit);
+}
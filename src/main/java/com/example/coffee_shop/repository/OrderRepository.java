@@ -2,14 +2,66 @@ package com.example.coffee_shop.repository;
 
 import com.example.coffee_shop.model.Order;
 import com.example.coffee_shop.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderBatchUpdates {
     List<Order> findByStatus(OrderStatus status);
 
+    // Scheduler working set in one statement. Read-only: the tick writes its changes
+    // with the bulk statements below, so dirty checking must not issue per-row updates.
+    @Query("select o from Order o join fetch o.drink left join fetch o.assignedBarista where o.status in :statuses")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findWorkingSet(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @Modifying
+    @Query("update Order o set o.status = :status where o.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    @Modifying
+    @Query("update Order o set o.status = :status, o.assignedBarista = null, o.estimatedCompletionTime = null "
+            + "where o.id in :ids")
+    int unassign(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
     List<Order> findByStatusOrderByPriorityScoreDesc(OrderStatus status);
+
+    // Streams rows off a server-side cursor (useCursorFetch=true on the JDBC URL) in
+    // fetch-size chunks. Drink and barista come back in the same statement.
+    @Query("select o from Order o join fetch o.drink left join fetch o.assignedBarista where o.status in :statuses")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<Order> streamByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    // Terminal orders that finished before the cutoff (cancelled ones never get a completedTime)
+    @Query("select o.id from Order o where o.status in :statuses "
+            + "and coalesce(o.completedTime, o.orderTime) < :cutoff order by o.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<OrderStatus> statuses,
+            @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Keyset page of one customer's live orders, newest first (idx_orders_customer_time)
+    @Query("select o from Order o join fetch o.drink left join fetch o.assignedBarista "
+            + "where o.customerId = :customerId and (o.orderTime < :beforeTime "
+            + "or (o.orderTime = :beforeTime and o.id < :beforeId)) order by o.orderTime desc, o.id desc")
+    List<Order> findCustomerPage(@Param("customerId") Long customerId,
+            @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId, Limit limit);
+
+    @Modifying
+    @Query("delete from Order o where o.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
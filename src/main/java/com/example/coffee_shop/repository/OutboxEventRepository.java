@@ -0,0 +1,17 @@
+package com.example.coffee_shop.repository;
+
+import com.example.coffee_shop.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest first; a PK range scan
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findBatch(Pageable pageable);
+}
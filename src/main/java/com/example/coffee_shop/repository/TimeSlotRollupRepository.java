@@ -0,0 +1,48 @@
+package com.example.coffee_shop.repository;
+
+import com.example.coffee_shop.model.TimeSlotRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TimeSlotRollupRepository extends JpaRepository<TimeSlotRollup, Long> {
+
+    List<TimeSlotRollup> findByEpochDayBetween(long fromDay, long toDay);
+
+    // Pre-summed deltas for one slot: buffered live orders, or a batch of imported ones
+    @Modifying
+    @Query(value = "INSERT INTO time_slot_rollups (slot_key, epoch_day, slot_index, arrivals, completions, "
+            + "wait_sum, wait_max, timeouts, fairness_violations) "
+            + "VALUES (:slotKey, :epochDay, :slotIndex, :arrivals, :completions, :waitSum, :waitMax, :timeouts, "
+            + ":fairness) "
+            + "ON DUPLICATE KEY UPDATE arrivals = arrivals + :arrivals, completions = completions + :completions, "
+            + "wait_sum = wait_sum + :waitSum, wait_max = GREATEST(wait_max, :waitMax), "
+            + "timeouts = timeouts + :timeouts, fairness_violations = fairness_violations + :fairness",
+            nativeQuery = true)
+    void recordTotals(@Param("slotKey") long slotKey, @Param("epochDay") long epochDay,
+            @Param("slotIndex") int slotIndex, @Param("arrivals") long arrivals,
+            @Param("completions") long completions, @Param("waitSum") long waitSum,
+            @Param("waitMax") long waitMax, @Param("timeouts") long timeouts, @Param("fairness") long fairness);
+
+    // One-off backfill from the raw order tables (live and archived)
+    @Modifying
+    @Query(value = "INSERT INTO time_slot_rollups (slot_key, epoch_day, slot_index, arrivals, completions, "
+            + "wait_sum, wait_max, timeouts, fairness_violations) "
+            + "SELECT s.epoch_day * 48 + s.slot_index, s.epoch_day, s.slot_index, COUNT(*), COUNT(s.wait), "
+            + "COALESCE(SUM(s.wait), 0), COALESCE(MAX(s.wait), 0), "
+            + "SUM(CASE WHEN s.wait > 10 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN s.wait IS NOT NULL AND s.times_skipped > 0 THEN 1 ELSE 0 END) "
+            + "FROM (SELECT TIMESTAMPDIFF(DAY, '1970-01-01', o.order_time) AS epoch_day, "
+            + "HOUR(o.order_time) * 2 + FLOOR(MINUTE(o.order_time) / 30) AS slot_index, "
+            + "TIMESTAMPDIFF(MINUTE, o.order_time, o.completed_time) AS wait, o.times_skipped "
+            + "FROM (SELECT order_time, completed_time, times_skipped FROM coffee_orders "
+            + "UNION ALL SELECT order_time, completed_time, times_skipped FROM coffee_order_history) o "
+            + "WHERE o.order_time IS NOT NULL) s "
+            + "GROUP BY s.epoch_day, s.slot_index", nativeQuery = true)
+    int backfillFromOrders();
+}
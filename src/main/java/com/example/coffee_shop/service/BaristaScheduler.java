@@ -3,122 +3,229 @@ package com.example.coffee_shop.service;
 import com.example.coffee_shop.model.Barista;
 import com.example.coffee_shop.model.BaristaStatus;
 import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderEventType;
 import com.example.coffee_shop.model.OrderStatus;
 import com.example.coffee_shop.repository.BaristaRepository;
 import com.example.coffee_shop.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class BaristaScheduler {
 
     private final OrderRepository orderRepository;
     private final BaristaRepository baristaRepository;
     private final PriorityService priorityService;
+    private final LiveQueueState liveQueueState;
+    private final OrderReadModel orderReadModel;
+    private final OrderEventJournal orderEventJournal;
+    private final OrderOutbox orderOutbox;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final DeadlineMonitor deadlineMonitor;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean ticking = new AtomicBoolean();
+
+    // HARD CONSTRAINT: Max 3 orders can be PREPARING at once (1 per barista)
+    private static final int MAX_PREPARING = 3;
+
+    public BaristaScheduler(OrderRepository orderRepository,
+            BaristaRepository baristaRepository,
+            PriorityService priorityService,
+            LiveQueueState liveQueueState,
+            OrderReadModel orderReadModel,
+            OrderEventJournal orderEventJournal,
+            OrderOutbox orderOutbox,
+            SchedulingPolicyRegistry policyRegistry,
+            DeadlineMonitor deadlineMonitor,
+            PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.baristaRepository = baristaRepository;
+        this.priorityService = priorityService;
+        this.liveQueueState = liveQueueState;
+        this.orderReadModel = orderReadModel;
+        this.orderEventJournal = orderEventJournal;
+        this.orderOutbox = orderOutbox;
+        this.policyRegistry = policyRegistry;
+        this.deadlineMonitor = deadlineMonitor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
+    /**
+     * One tick costs a fixed handful of statements however long the queue is:
+     * the working set is read once, every transition is worked out in memory,
+     * and the results go back as bulk updates and JDBC batches.
+     *
+     * Ticks never overlap: one that starts while another is still running
+     * (the warm start's first tick against a scheduled one) is skipped. The
+     * guard is held until the tick's transaction has committed, so the next
+     * tick always reads what the previous one wrote.
+     */
     @Scheduled(fixedRate = 30000) // Run every 30 seconds
-    @Transactional
     public void processQueue() {
+        if (!liveQueueState.isReady()) {
+            log.info("Warm start still running, skipping BaristaScheduler tick");
+            return;
+        }
+        if (!ticking.compareAndSet(false, true)) {
+            log.info("Previous BaristaScheduler tick still running, skipping this one");
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> tick());
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    private void tick() {
         log.info("Running BaristaScheduler...");
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Order> waitingOrders = new ArrayList<>();
+        List<Order> preparingOrders = new ArrayList<>();
+        for (Order order : orderRepository.findWorkingSet(List.of(OrderStatus.WAITING, OrderStatus.PREPARING))) {
+            (order.getStatus() == OrderStatus.PREPARING ? preparingOrders : waitingOrders).add(order);
+        }
+        List<Barista> activeBaristas = baristaRepository.findByStatus(BaristaStatus.ACTIVE);
+        liveQueueState.setActiveBaristas(activeBaristas);
 
         // 0. CLEANUP: Fix any stuck PREPARING orders from legacy data or bugs
-        cleanupStuckOrders();
+        List<Order> resetOrders = cleanupStuckOrders(preparingOrders);
+        waitingOrders.addAll(resetOrders);
 
         // 1. Check for orders that are done preparing
-        checkReadyOrders();
+        List<Order> readyOrders = checkReadyOrders(preparingOrders, now);
 
         // 2. Recalculate priorities for all WAITING orders
-        List<Order> waitingOrders = orderRepository.findByStatus(OrderStatus.WAITING);
-
         for (Order order : waitingOrders) {
-            double newScore = priorityService.calculatePriority(order);
-            order.setPriorityScore(newScore);
+            order.setPriorityScore(priorityService.calculatePriority(order, now));
+            publish(order, OrderEventType.RESCORED);
         }
-        orderRepository.saveAll(waitingOrders);
 
         // 3. Assign orders to available baristas
-        // CRITICAL: Check current PREPARING count BEFORE assignment
-        List<Order> preparingOrders = orderRepository.findByStatus(OrderStatus.PREPARING);
-        int currentPreparingCount = preparingOrders.size();
+        List<Order> assignedOrders = assignOrders(waitingOrders, preparingOrders, activeBaristas, now);
 
-        // HARD CONSTRAINT: Max 3 orders can be PREPARING at once (1 per barista)
-        if (currentPreparingCount >= 3) {
-            log.info("Max barista capacity reached ({}/3 preparing). No new assignments.", currentPreparingCount);
-            return;
+        // 4. Write everything back
+        if (!resetOrders.isEmpty()) {
+            orderRepository.unassign(ids(resetOrders), OrderStatus.WAITING);
         }
+        if (!readyOrders.isEmpty()) {
+            orderRepository.updateStatus(ids(readyOrders), OrderStatus.READY_TO_PICKUP);
+        }
+        orderRepository.updatePriorityScores(waitingOrders);
+        orderRepository.assignBaristas(assignedOrders);
+        if (loadsOutOfSync(activeBaristas, preparingOrders)) {
+            baristaRepository.syncLoadMinutes(BaristaStatus.ACTIVE, OrderStatus.PREPARING);
+        }
+    }
 
-        List<Barista> activeBaristas = baristaRepository.findByStatus(BaristaStatus.ACTIVE);
-
-        // Fetch orders sorted by priority (Highest first)
-        List<Order> sortedOrders = orderRepository.findByStatusOrderByPriorityScoreDesc(OrderStatus.WAITING);
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
 
-        if (sortedOrders.isEmpty() || activeBaristas.isEmpty()) {
-            return;
+    /**
+     * Assign waiting orders to free baristas, one policy decision each unless
+     * {@link DeadlineMonitor} escalates an order about to breach its deadline.
+     * Assigned orders move from {@code waitingOrders} to {@code preparingOrders}.
+     */
+    private List<Order> assignOrders(List<Order> waitingOrders, List<Order> preparingOrders,
+            List<Barista> activeBaristas, LocalDateTime now) {
+        int currentPreparingCount = preparingOrders.size();
+        if (currentPreparingCount >= MAX_PREPARING) {
+            log.info("Max barista capacity reached ({}/3 preparing). No new assignments.", currentPreparingCount);
+            return List.of();
+        }
+        if (waitingOrders.isEmpty() || activeBaristas.isEmpty()) {
+            return List.of();
         }
-
-        // Find which baristas are currently assigned to PREPARING orders
-        List<Long> busyBaristaIds = preparingOrders.stream()
-                .map(o -> o.getAssignedBarista() != null ? o.getAssignedBarista().getId() : null)
-                .filter(id -> id != null)
-                .toList();
 
         // Only assign to baristas that are NOT currently working on a PREPARING order
+        Set<Long> busyBaristaIds = preparingOrders.stream()
+                .map(o -> o.getAssignedBarista().getId())
+                .collect(Collectors.toSet());
         List<Barista> freeBaristas = activeBaristas.stream()
                 .filter(b -> !busyBaristaIds.contains(b.getId()))
                 .toList();
 
-        // Calculate how many new orders we can assign
-        int maxNewAssignments = 3 - currentPreparingCount;
-
+        int maxNewAssignments = MAX_PREPARING - currentPreparingCount;
         log.info("Barista Status: {}/3 preparing, {} free baristas, max {} new assignments",
                 currentPreparingCount, freeBaristas.size(), maxNewAssignments);
 
-        // Assign orders to free baristas up to the limit
-        for (int i = 0; i < Math.min(maxNewAssignments, Math.min(freeBaristas.size(), sortedOrders.size())); i++) {
+        SchedulingPolicy policy = policyRegistry.getActive(SchedulingPolicyRegistry.Scope.LIVE);
+        List<Order> candidates = new ArrayList<>(waitingOrders);
+        double avgWait = averageWaitMinutes(candidates, now);
+        List<Order> assigned = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxNewAssignments, Math.min(freeBaristas.size(), candidates.size())); i++) {
             Barista barista = freeBaristas.get(i);
-            Order orderToAssign = sortedOrders.get(i);
-
-            assignOrderToBarista(orderToAssign, barista);
+            Order order = deadlineMonitor.escalate(candidates, now)
+                    .orElseGet(() -> policy.select(candidates, now, avgWait));
+            candidates.remove(order);
+
+            order.setAssignedBarista(barista);
+            order.setStatus(OrderStatus.PREPARING);
+            order.setEstimatedCompletionTime(now.plusMinutes(order.getDrink().getPrepTimeMinutes()));
+            deadlineMonitor.recordAssignment(order);
+            publish(order, OrderEventType.ASSIGNED);
+            assigned.add(order);
+            log.info("Assigned Order {} to Barista {}", order.getId(), barista.getName());
         }
+        waitingOrders.removeAll(assigned);
+        preparingOrders.addAll(assigned);
+        return assigned;
     }
 
-    private void checkReadyOrders() {
-        // Find all orders that are PREPARING
-        // Since we don't have a direct repository method for PREPARING, we might need
-        // to add it or fetch all and filter.
-        // Better to add findByStatus to repository if not strictly just WAITING.
-        // Actually OrderRepository likely has findByStatus which is generic.
-        List<Order> preparingOrders = orderRepository.findByStatus(OrderStatus.PREPARING);
-        LocalDateTime now = LocalDateTime.now();
+    /**
+     * Congestion signal for the live queue: how long the waiting orders have
+     * been waiting so far, on average.
+     */
+    private double averageWaitMinutes(List<Order> orders, LocalDateTime now) {
+        return orders.stream()
+                .mapToDouble(o -> Duration.between(o.getOrderTime(), now).toSeconds() / 60.0)
+                .average()
+                .orElse(0.0);
+    }
 
+    /**
+     * Move finished orders out of {@code preparingOrders} and return them.
+     */
+    private List<Order> checkReadyOrders(List<Order> preparingOrders, LocalDateTime now) {
+        List<Order> ready = new ArrayList<>();
         for (Order order : preparingOrders) {
             if (order.getEstimatedCompletionTime() != null && order.getEstimatedCompletionTime().isBefore(now)) {
                 log.info("Order {} is ready for pickup!", order.getId());
                 order.setStatus(OrderStatus.READY_TO_PICKUP);
-                // Reduce load on barista?
-                // Ideally yes, but our simple model increments load at assignment.
-                // We could decrement it here, or just let the scheduler reset loads
-                // periodically.
-                // For this simple logic, let's assume load clears over time or we decrement it.
-                if (order.getAssignedBarista() != null) {
-                    Barista b = order.getAssignedBarista();
-                    b.setCurrentLoadMinutes(
-                            Math.max(0, b.getCurrentLoadMinutes() - order.getDrink().getPrepTimeMinutes()));
-                    baristaRepository.save(b);
-                }
-                orderRepository.save(order);
+                publish(order, OrderEventType.READY);
+                ready.add(order);
             }
         }
+        preparingOrders.removeAll(ready);
+        return ready;
+    }
+
+    /**
+     * Barista load should be the prep time of the order each one is working on.
+     * Compared in memory so the bulk update only runs when something moved.
+     */
+    private boolean loadsOutOfSync(List<Barista> activeBaristas, List<Order> preparingOrders) {
+        Map<Long, Integer> expected = preparingOrders.stream()
+                .collect(Collectors.groupingBy(o -> o.getAssignedBarista().getId(),
+                        Collectors.summingInt(o -> o.getDrink().getPrepTimeMinutes())));
+        return activeBaristas.stream()
+                .anyMatch(b -> b.getCurrentLoadMinutes() != expected.getOrDefault(b.getId(), 0));
     }
 
     /**
@@ -127,98 +234,78 @@ public class BaristaScheduler {
      * 1. Orders in PREPARING without a barista assigned
      * 2. Excess PREPARING orders beyond the 3-barista limit
      * 3. Multiple orders assigned to the same barista
+     *
+     * Works on the in-memory working set: reset orders are removed from
+     * {@code preparingOrders} and returned, already back in WAITING.
      */
-    private void cleanupStuckOrders() {
-        List<Order> preparingOrders = orderRepository.findByStatus(OrderStatus.PREPARING);
-
+    private List<Order> cleanupStuckOrders(List<Order> preparingOrders) {
+        List<Order> reset = new ArrayList<>();
         if (preparingOrders.isEmpty()) {
-            return;
+            return reset;
         }
 
-        int ordersReset = 0;
-
         // Step 1: Reset orders without a valid barista assignment
         for (Order order : preparingOrders) {
             if (order.getAssignedBarista() == null) {
                 log.warn("Order {} in PREPARING but no barista assigned. Resetting to WAITING.", order.getId());
-                order.setStatus(OrderStatus.WAITING);
-                order.setEstimatedCompletionTime(null);
-                orderRepository.save(order);
-                ordersReset++;
+                reset.add(order);
             }
         }
+        preparingOrders.removeAll(reset);
 
         // Step 2: If more than 3 orders in PREPARING, reset the excess (keep oldest 3)
-        preparingOrders = orderRepository.findByStatus(OrderStatus.PREPARING);
-        if (preparingOrders.size() > 3) {
+        if (preparingOrders.size() > MAX_PREPARING) {
             log.warn("CONSTRAINT VIOLATION: {} orders in PREPARING (max 3). Resetting excess orders to WAITING.",
                     preparingOrders.size());
 
             // Sort by order time (oldest first) to keep the 3 oldest
-            preparingOrders.sort((o1, o2) -> o1.getOrderTime().compareTo(o2.getOrderTime()));
-
-            // Reset all orders beyond the first 3
-            for (int i = 3; i < preparingOrders.size(); i++) {
-                Order order = preparingOrders.get(i);
+            preparingOrders.sort(Comparator.comparing(Order::getOrderTime));
+            List<Order> excess = new ArrayList<>(preparingOrders.subList(MAX_PREPARING, preparingOrders.size()));
+            for (Order order : excess) {
                 log.info("Resetting Order {} (assigned to {}) back to WAITING",
-                        order.getId(),
-                        order.getAssignedBarista() != null ? order.getAssignedBarista().getName() : "none");
-
-                order.setStatus(OrderStatus.WAITING);
-                order.setAssignedBarista(null);
-                order.setEstimatedCompletionTime(null);
-                orderRepository.save(order);
-                ordersReset++;
+                        order.getId(), order.getAssignedBarista().getName());
             }
+            preparingOrders.removeAll(excess);
+            reset.addAll(excess);
         }
 
         // Step 3: Check for baristas with multiple PREPARING orders (violation of
         // 1-order-per-barista rule)
-        preparingOrders = orderRepository.findByStatus(OrderStatus.PREPARING);
         Map<Long, List<Order>> ordersByBarista = preparingOrders.stream()
-                .filter(o -> o.getAssignedBarista() != null)
                 .collect(Collectors.groupingBy(o -> o.getAssignedBarista().getId()));
-
         for (Map.Entry<Long, List<Order>> entry : ordersByBarista.entrySet()) {
             if (entry.getValue().size() > 1) {
                 log.warn("Barista ID {} has {} orders in PREPARING (max 1). Resetting extras to WAITING.",
                         entry.getKey(), entry.getValue().size());
 
                 // Keep the first order, reset the rest
-                List<Order> baristaOrders = entry.getValue();
-                for (int i = 1; i < baristaOrders.size(); i++) {
-                    Order order = baristaOrders.get(i);
-                    order.setStatus(OrderStatus.WAITING);
-                    order.setAssignedBarista(null);
-                    order.setEstimatedCompletionTime(null);
-                    orderRepository.save(order);
-                    ordersReset++;
-                }
+                List<Order> extras = entry.getValue().subList(1, entry.getValue().size());
+                preparingOrders.removeAll(extras);
+                reset.addAll(extras);
             }
         }
 
-        // Reset barista loads to match actual PREPARING orders
-        List<Barista> allBaristas = baristaRepository.findByStatus(BaristaStatus.ACTIVE);
-        for (Barista barista : allBaristas) {
-            barista.setCurrentLoadMinutes(0);
-            baristaRepository.save(barista);
+        for (Order order : reset) {
+            order.setStatus(OrderStatus.WAITING);
+            order.setAssignedBarista(null);
+            order.setEstimatedCompletionTime(null);
+            publish(order, OrderEventType.RESET);
         }
-
-        if (ordersReset > 0) {
-            log.info("Cleanup complete: {} orders reset to WAITING to enforce concurrency constraint", ordersReset);
+        if (!reset.isEmpty()) {
+            log.info("Cleanup complete: {} orders reset to WAITING to enforce concurrency constraint", reset.size());
         }
+        return reset;
     }
 
-    private void assignOrderToBarista(Order order, Barista barista) {
-        order.setAssignedBarista(barista);
-        order.setStatus(OrderStatus.PREPARING);
-        order.setEstimatedCompletionTime(LocalDateTime.now().plusMinutes(order.getDrink().getPrepTimeMinutes()));
-
-        barista.setCurrentLoadMinutes(barista.getCurrentLoadMinutes() + order.getDrink().getPrepTimeMinutes());
-
-        orderRepository.save(order);
-        baristaRepository.save(barista);
-
-        log.info("Assigned Order {} to Barista {}", order.getId(), barista.getName());
+    /**
+     * Mirror a transition just written to coffee_orders into the in-memory
+     * views and the event journal (applied after commit), and into the outbox
+     * (same transaction).
+     */
+    private void publish(Order order, OrderEventType type) {
+        liveQueueState.track(order);
+        orderReadModel.update(order);
+        orderEventJournal.record(order, type);
+        orderOutbox.record(order, type);
     }
 }
@@ -0,0 +1,339 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.HistoryStatsDTO;
+import com.example.coffee_shop.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped columnar store of completed orders, used for
+ * long-range wait-time analytics without going through MySQL or hydrating
+ * entities.
+ *
+ * Each segment file holds a fixed number of rows laid out column by column:
+ *
+ * <pre>
+ * header        64 bytes   magic, version, capacity, rowCount, min/max orderTime
+ * orderTime     long[cap]  epoch millis of the wall-clock time (UTC offset, no DST jumps)
+ * completedTime long[cap]
+ * drinkId       long[cap]
+ * baristaId     long[cap]  -1 when no barista was recorded
+ * timesSkipped  int[cap]
+ * loyal         byte[cap]
+ * </pre>
+ *
+ * A single writer appends under the store lock and publishes the new row count
+ * last, so scans can run concurrently over the prefix they see. With
+ * {@code coffee.history.columnar.read-only} (the export CLI) segments are mapped
+ * read-only and appends are refused, leaving the live app as the only writer.
+ */
+@Service
+@Slf4j
+public class ColumnarHistoryStore {
+
+    static final int MAGIC = 0x43464831; // "CFH1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int ROW_BYTES = 8 * 4 + 4 + 1;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long TIMEOUT_MINUTES = 10;
+
+    private final Path directory;
+    private final int rowsPerSegment;
+    private final boolean readOnly;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private volatile boolean dirty = false;
+
+    public ColumnarHistoryStore(@Value("${coffee.history.columnar.dir:data/history}") String directory,
+            @Value("${coffee.history.columnar.rows-per-segment:1048576}") int rowsPerSegment,
+            @Value("${coffee.history.columnar.read-only:false}") boolean readOnly) {
+        this.directory = Path.of(directory);
+        this.rowsPerSegment = rowsPerSegment;
+        this.readOnly = readOnly;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (readOnly && !Files.isDirectory(directory)) {
+            log.info("Columnar history: read-only, no segments in {}", directory.toAbsolutePath());
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(p -> p.getFileName().toString().endsWith(".col")).sorted().toList()) {
+                segments.add(readOnly ? Segment.openReadOnly(file) : Segment.open(file, rowsPerSegment));
+            }
+        }
+        long rows = segments.stream().mapToLong(s -> s.rowCount).sum();
+        log.info("Columnar history: {} segments, {} completed orders in {}", segments.size(), rows,
+                directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Append a completed order. The row is written after the surrounding
+     * transaction commits; orders without a completion time are ignored.
+     */
+    public void append(Order order) {
+        if (readOnly) {
+            throw new IllegalStateException("Columnar history is read-only");
+        }
+        if (order.getOrderTime() == null || order.getCompletedTime() == null) {
+            return;
+        }
+        long orderTime = toMillis(order.getOrderTime());
+        long completedTime = toMillis(order.getCompletedTime());
+        long drinkId = order.getDrink() != null ? order.getDrink().getId() : -1L;
+        long baristaId = order.getAssignedBarista() != null ? order.getAssignedBarista().getId() : -1L;
+        int timesSkipped = order.getTimesSkipped();
+        boolean loyal = order.isLoyal();
+
+        AfterCommit.run(() -> write(orderTime, completedTime, drinkId, baristaId, timesSkipped, loyal));
+    }
+
+    private synchronized void write(long orderTime, long completedTime, long drinkId, long baristaId,
+            int timesSkipped, boolean loyal) {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.rowCount == segment.capacity) {
+            segment = newSegment();
+        }
+        segment.append(orderTime, completedTime, drinkId, baristaId, timesSkipped, loyal);
+        dirty = true;
+    }
+
+    private Segment newSegment() {
+        Path file = directory.resolve(String.format("segment-%06d.col", segments.size()));
+        try {
+            Segment segment = Segment.open(file, rowsPerSegment);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create history segment " + file, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coffee.history.columnar.flush-interval-ms:5000}")
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        segments.forEach(s -> s.buffer.force());
+    }
+
+    /**
+     * Wait-time aggregates for orders placed between {@code from} and {@code to}
+     * (inclusive). Segments whose order-time range misses the window are skipped
+     * from their header alone; the rest is a straight loop over the columns.
+     */
+    public HistoryStatsDTO scan(LocalDate from, LocalDate to) {
+        long fromMillis = toMillis(from.atStartOfDay());
+        long toMillis = toMillis(to.atTime(LocalTime.MAX));
+
+        long count = 0;
+        long waitSum = 0;
+        long maxWait = 0;
+        long timeouts = 0;
+        long loyalCount = 0;
+        long loyalWaitSum = 0;
+        int scanned = 0;
+
+        for (Segment segment : segments) {
+            int rows = segment.rowCount; // volatile read: everything below it is fully written
+            if (rows == 0 || segment.maxOrderTime < fromMillis || segment.minOrderTime > toMillis) {
+                continue;
+            }
+            scanned++;
+            LongBuffer ordered = segment.orderTimes;
+            LongBuffer completed = segment.completedTimes;
+            ByteBuffer loyal = segment.loyal;
+            for (int i = 0; i < rows; i++) {
+                long placedAt = ordered.get(i);
+                if (placedAt < fromMillis || placedAt > toMillis) {
+                    continue;
+                }
+                long wait = (completed.get(i) - placedAt) / MILLIS_PER_MINUTE; // truncates like Duration.toMinutes
+                count++;
+                waitSum += wait;
+                if (wait > maxWait) {
+                    maxWait = wait;
+                }
+                if (wait > TIMEOUT_MINUTES) {
+                    timeouts++;
+                }
+                if (loyal.get(i) != 0) {
+                    loyalCount++;
+                    loyalWaitSum += wait;
+                }
+            }
+        }
+
+        // Loyal customers weigh 1.5x, as in StatsService
+        double totalWeight = (count - loyalCount) + 1.5 * loyalCount;
+        double weightedWait = (waitSum - loyalWaitSum) + 1.5 * loyalWaitSum;
+
+        return HistoryStatsDTO.builder()
+                .from(from)
+                .to(to)
+                .ordersCompleted(count)
+                .avgWaitTime(count > 0 ? (double) waitSum / count : 0.0)
+                .weightedAvgWait(totalWeight > 0 ? weightedWait / totalWeight : 0.0)
+                .maxWaitTime(maxWait)
+                .timeoutCount(timeouts)
+                .timeoutRate(count > 0 ? (timeouts * 100.0) / count : 0.0)
+                .loyalOrders(loyalCount)
+                .segmentsScanned(scanned)
+                .build();
+    }
+
+    static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * One mapped segment file with typed views over each column.
+     */
+    private static final class Segment {
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final LongBuffer orderTimes;
+        private final LongBuffer completedTimes;
+        private final LongBuffer drinkIds;
+        private final LongBuffer baristaIds;
+        private final IntBuffer timesSkipped;
+        private final ByteBuffer loyal;
+
+        private volatile int rowCount;
+        private volatile long minOrderTime;
+        private volatile long maxOrderTime;
+
+        private Segment(MappedByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            int offset = HEADER_BYTES;
+            this.orderTimes = column(buffer, offset, capacity * 8).asLongBuffer();
+            offset += capacity * 8;
+            this.completedTimes = column(buffer, offset, capacity * 8).asLongBuffer();
+            offset += capacity * 8;
+            this.drinkIds = column(buffer, offset, capacity * 8).asLongBuffer();
+            offset += capacity * 8;
+            this.baristaIds = column(buffer, offset, capacity * 8).asLongBuffer();
+            offset += capacity * 8;
+            this.timesSkipped = column(buffer, offset, capacity * 4).asIntBuffer();
+            offset += capacity * 4;
+            this.loyal = column(buffer, offset, capacity);
+        }
+
+        static Segment open(Path file, int defaultCapacity) throws IOException {
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                int capacity = defaultCapacity;
+                if (exists) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+                    channel.read(header, 0);
+                    if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                        throw new IOException("Not a history segment: " + file);
+                    }
+                    capacity = header.getInt(8);
+                }
+                // The mapping stays valid after the channel is closed
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        HEADER_BYTES + (long) capacity * ROW_BYTES);
+                buffer.order(BYTE_ORDER);
+
+                Segment segment = new Segment(buffer, capacity);
+                if (exists) {
+                    segment.minOrderTime = buffer.getLong(16);
+                    segment.maxOrderTime = buffer.getLong(24);
+                    segment.rowCount = buffer.getInt(12);
+                } else {
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.putInt(8, capacity);
+                    buffer.putInt(12, 0);
+                    segment.minOrderTime = Long.MAX_VALUE;
+                    segment.maxOrderTime = Long.MIN_VALUE;
+                    buffer.putLong(16, segment.minOrderTime);
+                    buffer.putLong(24, segment.maxOrderTime);
+                }
+                return segment;
+            }
+        }
+
+        // Header as of now; rows the live writer adds later are not seen
+        static Segment openReadOnly(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("Not a history segment: " + file);
+                }
+                int capacity = header.getInt(8);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        HEADER_BYTES + (long) capacity * ROW_BYTES);
+                buffer.order(BYTE_ORDER);
+
+                Segment segment = new Segment(buffer, capacity);
+                segment.minOrderTime = header.getLong(16);
+                segment.maxOrderTime = header.getLong(24);
+                segment.rowCount = header.getInt(12);
+                return segment;
+            }
+        }
+
+        private static ByteBuffer column(MappedByteBuffer buffer, int offset, int length) {
+            return buffer.slice(offset, length).order(BYTE_ORDER);
+        }
+
+        void append(long orderTime, long completedTime, long drinkId, long baristaId, int skipped, boolean isLoyal) {
+            int row = rowCount;
+            orderTimes.put(row, orderTime);
+            completedTimes.put(row, completedTime);
+            drinkIds.put(row, drinkId);
+            baristaIds.put(row, baristaId);
+            timesSkipped.put(row, skipped);
+            loyal.put(row, (byte) (isLoyal ? 1 : 0));
+
+            if (orderTime < minOrderTime) {
+                minOrderTime = orderTime;
+                buffer.putLong(16, orderTime);
+            }
+            if (orderTime > maxOrderTime) {
+                maxOrderTime = orderTime;
+                buffer.putLong(24, orderTime);
+            }
+            buffer.putInt(12, row + 1);
+            rowCount = row + 1; // publish last
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.CustomerDTO;
+import com.example.coffee_shop.dto.OrderHistoryPageDTO;
+import com.example.coffee_shop.dto.OrderResponse;
+import com.example.coffee_shop.model.Customer;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.repository.CustomerRepository;
+import com.example.coffee_shop.repository.OrderHistoryRepository;
+import com.example.coffee_shop.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Customer dimension: per-account order counters, loyalty derived from them,
+ * and paged order history across the live and archived tables. Every lookup
+ * goes through the unique username index or the (customer, orderTime) indexes.
+ */
+@Service
+public class CustomerService {
+
+    // Upper bound for the first page; fits MySQL DATETIME
+    private static final LocalDateTime FIRST_PAGE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final TransactionTemplate newTransaction;
+    private final long loyaltyMinOrders;
+
+    public CustomerService(CustomerRepository customerRepository,
+            OrderRepository orderRepository,
+            OrderHistoryRepository orderHistoryRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${coffee.loyalty.min-orders:5}") long loyaltyMinOrders) {
+        this.customerRepository = customerRepository;
+        this.orderRepository = orderRepository;
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loyaltyMinOrders = loyaltyMinOrders;
+    }
+
+    /**
+     * Count an order against the account. The returned customer still holds
+     * the counters from before this order, so {@link #isLoyal} tells whether
+     * the order earns loyalty priority. Runs in the caller's transaction apart
+     * from first-time account creation.
+     */
+    public Customer recordOrder(String username, LocalDateTime at) {
+        Customer customer = customerRepository.findByUsername(username).orElseGet(() -> create(username));
+        customerRepository.recordOrder(customer.getId(), at);
+        return customer;
+    }
+
+    public boolean isLoyal(Customer customer) {
+        return customer.getOrderCount() >= loyaltyMinOrders;
+    }
+
+    // Own transaction so a lost insert race doesn't poison the caller's. The
+    // winner's row is re-read in a fresh transaction too: under REPEATABLE READ
+    // the caller's snapshot predates that insert and would never see it.
+    private Customer create(String username) {
+        try {
+            return newTransaction.execute(status -> {
+                Customer customer = new Customer();
+                customer.setUsername(username);
+                return customerRepository.save(customer);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return newTransaction.execute(status -> customerRepository.findByUsername(username))
+                    .orElseThrow(() -> new IllegalStateException("Customer vanished: " + username, e));
+        }
+    }
+
+    public Optional<CustomerDTO> getCustomer(String username) {
+        return customerRepository.findByUsername(username).map(this::toDto);
+    }
+
+    /**
+     * Summary for a signed-in user, including one who hasn't ordered yet.
+     */
+    public CustomerDTO getOrEmpty(String username) {
+        return getCustomer(username).orElseGet(() -> CustomerDTO.builder()
+                .username(username)
+                .ordersUntilLoyal(loyaltyMinOrders)
+                .build());
+    }
+
+    private CustomerDTO toDto(Customer customer) {
+        return CustomerDTO.builder()
+                .username(customer.getUsername())
+                .orderCount(customer.getOrderCount())
+                .loyal(isLoyal(customer))
+                .ordersUntilLoyal(Math.max(0, loyaltyMinOrders - customer.getOrderCount()))
+                .firstOrderTime(customer.getFirstOrderTime())
+                .lastOrderTime(customer.getLastOrderTime())
+                .build();
+    }
+
+    /**
+     * Orders placed by {@code username}, newest first, continuing after
+     * ({@code beforeTime}, {@code beforeId}) when given. Reads one index range
+     * from each table and merges them, so cost depends on the page size only.
+     */
+    public OrderHistoryPageDTO getOrders(String username, LocalDateTime beforeTime, Long beforeId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((beforeTime == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("beforeTime and beforeId must be given together");
+        }
+        Optional<Customer> customer = customerRepository.findByUsername(username);
+        if (customer.isEmpty()) {
+            return OrderHistoryPageDTO.builder().orders(List.of()).build();
+        }
+        Long customerId = customer.get().getId();
+        LocalDateTime time = beforeTime != null ? beforeTime : FIRST_PAGE;
+        Long id = beforeId != null ? beforeId : Long.MAX_VALUE;
+
+        // One extra row tells us whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<Order> merged = new ArrayList<>(orderRepository.findCustomerPage(customerId, time, id, limit));
+        orderHistoryRepository.findCustomerPage(customerId, time, id, limit)
+                .forEach(h -> merged.add(h.toOrder()));
+        merged.sort(Comparator.comparing(Order::getOrderTime).thenComparing(Order::getId).reversed());
+
+        boolean more = merged.size() > size;
+        List<Order> page = more ? merged.subList(0, size) : merged;
+        Order last = more ? page.get(size - 1) : null;
+        return OrderHistoryPageDTO.builder()
+                .orders(page.stream().map(OrderResponse::from).toList())
+                .nextBeforeTime(last != null ? last.getOrderTime() : null)
+                .nextBeforeId(last != null ? last.getId() : null)
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.coffee_shop.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Calendar queue of order deadlines with one bucket per second over the SLA
+ * horizon. Adding and removing an order is O(1); "what is due in the next N
+ * seconds" touches N buckets, however many orders are queued. Deadlines past
+ * the horizon wait in an overflow map and move into the ring as time advances.
+ *
+ * Not thread-safe; {@link LiveQueueState} guards it.
+ */
+class DeadlineCalendar {
+
+    static final int HORIZON_SECONDS = 600; // hardDeadline is orderTime + 10 min
+
+    private static final int SLOTS = HORIZON_SECONDS + 1;
+
+    @SuppressWarnings("unchecked")
+    private final Set<Long>[] buckets = new Set[SLOTS];
+    private final TreeMap<Long, Set<Long>> overflow = new TreeMap<>();
+    private final Map<Long, Long> deadlineOf = new HashMap<>();
+
+    // Seconds before this have been swept; Long.MIN_VALUE until the first advance
+    private long cursor = Long.MIN_VALUE;
+
+    DeadlineCalendar() {
+        for (int i = 0; i < SLOTS; i++) {
+            buckets[i] = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * Track an order (replacing any earlier deadline). A deadline that has
+     * already been swept past lands in the current bucket and is reported by
+     * the next {@link #advance}.
+     */
+    void add(long orderId, long deadlineSecond) {
+        remove(orderId);
+        long second = cursor == Long.MIN_VALUE ? deadlineSecond : Math.max(deadlineSecond, cursor);
+        deadlineOf.put(orderId, second);
+        if (inRing(second)) {
+            buckets[slot(second)].add(orderId);
+        } else {
+            overflow.computeIfAbsent(second, s -> new LinkedHashSet<>()).add(orderId);
+        }
+    }
+
+    void remove(long orderId) {
+        Long second = deadlineOf.remove(orderId);
+        if (second == null) {
+            return;
+        }
+        if (inRing(second)) {
+            buckets[slot(second)].remove(orderId);
+            return;
+        }
+        Set<Long> ids = overflow.get(second);
+        if (ids != null && ids.remove(orderId) && ids.isEmpty()) {
+            overflow.remove(second);
+        }
+    }
+
+    /**
+     * Move the clock to {@code nowSecond} and return every order whose
+     * deadline fell before it. Those orders are no longer tracked.
+     */
+    List<Long> advance(long nowSecond) {
+        List<Long> breached = new ArrayList<>();
+        if (cursor != Long.MIN_VALUE) {
+            if (nowSecond <= cursor) {
+                return breached;
+            }
+            // A pause longer than the horizon just sweeps the whole ring once
+            long sweepTo = Math.min(nowSecond, cursor + SLOTS);
+            for (long s = cursor; s < sweepTo; s++) {
+                Set<Long> bucket = buckets[slot(s)];
+                breached.addAll(bucket);
+                bucket.clear();
+            }
+        }
+        cursor = nowSecond;
+        Map<Long, Set<Long>> overdue = overflow.headMap(nowSecond, false);
+        overdue.values().forEach(breached::addAll);
+        overdue.clear();
+        breached.forEach(deadlineOf::remove);
+        migrateOverflow();
+        return breached;
+    }
+
+    /**
+     * Orders whose deadline is at or before {@code nowSecond + seconds}, most
+     * urgent first. Includes deadlines already passed but not yet swept.
+     */
+    List<Long> dueWithin(long nowSecond, int seconds) {
+        List<Long> due = new ArrayList<>();
+        if (cursor == Long.MIN_VALUE) {
+            overflow.headMap(nowSecond + seconds, true).values().forEach(due::addAll);
+            return due;
+        }
+        long last = Math.min(nowSecond + seconds, cursor + SLOTS - 1);
+        for (long s = cursor; s <= last; s++) {
+            due.addAll(buckets[slot(s)]);
+        }
+        return due;
+    }
+
+    int size() {
+        return deadlineOf.size();
+    }
+
+    void clear() {
+        for (Set<Long> bucket : buckets) {
+            bucket.clear();
+        }
+        overflow.clear();
+        deadlineOf.clear();
+    }
+
+    private void migrateOverflow() {
+        Map<Long, Set<Long>> inRange = overflow.headMap(cursor + SLOTS, false);
+        inRange.forEach((second, ids) -> buckets[slot(second)].addAll(ids));
+        inRange.clear();
+    }
+
+    private boolean inRing(long second) {
+        return cursor != Long.MIN_VALUE && second >= cursor && second < cursor + SLOTS;
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) SLOTS);
+    }
+}
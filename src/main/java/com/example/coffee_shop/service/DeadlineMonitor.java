@@ -0,0 +1,95 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * SLA watch on {@code hardDeadline}, backed by the per-second deadline index
+ * in {@link LiveQueueState}. Picks orders for the dispatcher to escalate and
+ * counts misses as they happen:
+ * <ul>
+ * <li>{@code coffee.deadline.misses{stage=waiting}}: still queued when the deadline passed</li>
+ * <li>{@code coffee.deadline.misses{stage=assigned}}: started too late to finish in time</li>
+ * <li>{@code coffee.deadline.escalations}: orders pulled ahead of the policy's choice</li>
+ * <li>{@code coffee.deadline.at-risk}: waiting orders whose queue ETA is past their deadline</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class DeadlineMonitor {
+
+    private final LiveQueueState liveQueueState;
+    private final Counter waitingMisses;
+    private final Counter assignedMisses;
+    private final Counter escalations;
+
+    public DeadlineMonitor(LiveQueueState liveQueueState, MeterRegistry meterRegistry) {
+        this.liveQueueState = liveQueueState;
+        this.waitingMisses = Counter.builder("coffee.deadline.misses").tag("stage", "waiting")
+                .register(meterRegistry);
+        this.assignedMisses = Counter.builder("coffee.deadline.misses").tag("stage", "assigned")
+                .register(meterRegistry);
+        this.escalations = Counter.builder("coffee.deadline.escalations").register(meterRegistry);
+        Gauge.builder("coffee.deadline.at-risk",
+                () -> liveQueueState.getOrdersAtRisk(LocalDateTime.now()).size())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void sweep() {
+        if (!liveQueueState.isReady()) {
+            return;
+        }
+        List<LiveQueueState.QueuedOrder> missed = liveQueueState.sweepMissedDeadlines(LocalDateTime.now());
+        if (!missed.isEmpty()) {
+            waitingMisses.increment(missed.size());
+            log.warn("{} waiting order(s) passed their hard deadline: {}", missed.size(),
+                    missed.stream().map(LiveQueueState.QueuedOrder::id).toList());
+        }
+    }
+
+    /**
+     * The candidate the dispatcher should take ahead of the policy: among the
+     * orders the queue ETA says will miss their deadline, the one due soonest
+     * that can still be finished in time if started now. Orders the queue will
+     * serve in time are left to the policy, and so are orders that will miss
+     * anyway rather than jumping the queue for nothing.
+     */
+    public Optional<Order> escalate(List<Order> candidates, LocalDateTime now) {
+        Set<Long> due = liveQueueState.getOrdersAtRisk(now).stream()
+                .map(LiveQueueState.QueuedOrder::id)
+                .collect(Collectors.toSet());
+        if (due.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Order> pick = candidates.stream()
+                .filter(o -> due.contains(o.getId()) && o.getHardDeadline() != null)
+                .filter(o -> !now.plusMinutes(o.getDrink().getPrepTimeMinutes()).isAfter(o.getHardDeadline()))
+                .min(Comparator.comparing(Order::getHardDeadline));
+        pick.ifPresent(o -> escalations.increment());
+        return pick;
+    }
+
+    /**
+     * Count an assignment whose estimated completion is already past the
+     * deadline; it can no longer be saved.
+     */
+    public void recordAssignment(Order order) {
+        if (order.getHardDeadline() != null && order.getEstimatedCompletionTime() != null
+                && order.getEstimatedCompletionTime().isAfter(order.getHardDeadline())) {
+            assignedMisses.increment();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Drink;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Draws drinks in proportion to {@link Drink#getDemandFrequency()}, or any
+ * other weight, in O(1) using Vose's alias method. Drinks are ordered by id,
+ * so the same menu and the same random stream always give the same drinks.
+ */
+final class DrinkSampler {
+
+    private final List<Drink> drinks;
+    private final double[] probability;
+    private final int[] alias;
+
+    DrinkSampler(List<Drink> menu) {
+        this(menu, Drink::getDemandFrequency);
+    }
+
+    DrinkSampler(List<Drink> menu, ToDoubleFunction<Drink> weight) {
+        drinks = menu.stream().sorted(Comparator.comparing(Drink::getId)).toList();
+        if (drinks.isEmpty()) {
+            throw new IllegalStateException("No drinks on the menu");
+        }
+        int n = drinks.size();
+        double[] weights = drinks.stream().mapToDouble(weight).toArray();
+        double total = Arrays.stream(weights).sum();
+        if (!(total > 0) || Arrays.stream(weights).anyMatch(w -> w < 0)) {
+            throw new IllegalStateException("Drink weights must be non-negative with a positive sum");
+        }
+
+        // Scale so the average column holds exactly 1
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+
+        probability = new double[n];
+        alias = new int[n];
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int s = small.pop();
+            int l = large.pop();
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            (scaled[l] < 1.0 ? small : large).push(l);
+        }
+        // Whatever is left is 1 up to rounding
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1.0;
+        }
+    }
+
+    Drink sample(SplittableRandom random) {
+        int column = random.nextInt(probability.length);
+        return drinks.get(random.nextDouble() < probability[column] ? column : alias[column]);
+    }
+}
@@ -0,0 +1,500 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.HistoryStatsDTO;
+import com.example.coffee_shop.dto.StatsDTO;
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.repository.BaristaRepository;
+import com.example.coffee_shop.repository.DrinkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk export of orders (live and archived), stats aggregates and the order
+ * event journal for finance and analytics.
+ *
+ * Orders are read in keyset pages on (order_time, id) across both tables, so
+ * every statement is a short, bounded, non-locking read and memory stays flat
+ * however many rows the range holds. Output goes through a
+ * {@link WritableByteChannel} with one large buffer: a {@code FileChannel}
+ * from the CLI, or the response stream from the controller.
+ *
+ * The columnar format is a sibling of {@link ColumnarHistoryStore}'s segments,
+ * little-endian, written as a stream of row groups:
+ *
+ * <pre>
+ * header        16 bytes   magic "CFX1", version, 8 reserved
+ * row group     int rows, then one column after another:
+ *   id long[], orderTime long[], completedTime long[], hardDeadline long[]   (epoch millis, UTC; -1 = none)
+ *   drinkId long[], baristaId long[], customerId long[]                      (-1 = none)
+ *   priorityScore double[], timesSkipped int[], status byte[] (ordinal), loyal byte[]
+ * trailer       int 0, long total rows
+ * </pre>
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_COLUMNAR = "columnar";
+
+    static final int COLUMNAR_MAGIC = 0x43465831; // "CFX1"
+    static final int COLUMNAR_VERSION = 1;
+
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final DateTimeFormatter CSV_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int CSV_FLUSH_CHARS = 1 << 16;
+
+    private static final String COLUMNS = "id, order_time, status, customer_name, customer_id, drink_id, barista_id,"
+            + " is_loyal, priority_score, times_skipped, hard_deadline, completed_time";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DrinkRepository drinkRepository;
+    private final BaristaRepository baristaRepository;
+    private final StatsService statsService;
+    private final OrderEventJournal orderEventJournal;
+    private final int pageSize;
+
+    public ExportService(DataSource dataSource,
+            DrinkRepository drinkRepository,
+            BaristaRepository baristaRepository,
+            StatsService statsService,
+            OrderEventJournal orderEventJournal,
+            @Value("${coffee.export.page-size:5000}") int pageSize) {
+        // Own template: with useCursorFetch=true each page comes back in one bounded fetch
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(pageSize);
+        this.drinkRepository = drinkRepository;
+        this.baristaRepository = baristaRepository;
+        this.statsService = statsService;
+        this.orderEventJournal = orderEventJournal;
+        this.pageSize = pageSize;
+    }
+
+    public static void checkFormat(String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_COLUMNAR.equals(format)) {
+            throw new IllegalArgumentException("Unknown export format: " + format);
+        }
+    }
+
+    /**
+     * Write every order placed between {@code from} and {@code to} (inclusive
+     * dates, both optional) with one of {@code statuses} (empty means all), in
+     * order-time order. Returns the number of orders written; the channel is
+     * left open.
+     */
+    public long exportOrders(LocalDate from, LocalDate to, List<OrderStatus> statuses, String format,
+            WritableByteChannel channel) throws IOException {
+        checkFormat(format);
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        long started = System.nanoTime();
+        OrderPage page = new OrderPage(pageSize);
+        ChannelOut out = new ChannelOut(channel);
+        boolean csv = FORMAT_CSV.equals(format);
+        Map<Long, String> drinkNames = drinkRepository.findAll().stream()
+                .collect(Collectors.toMap(Drink::getId, Drink::getName));
+        Map<Long, String> baristaNames = baristaRepository.findAll().stream()
+                .collect(Collectors.toMap(Barista::getId, Barista::getName));
+
+        if (csv) {
+            out.text("id,order_time,status,customer_name,customer_id,drink_id,drink_name,barista_id,barista_name,"
+                    + "loyal,priority_score,times_skipped,hard_deadline,completed_time,wait_minutes\n");
+        } else {
+            out.putInt(COLUMNAR_MAGIC).putInt(COLUMNAR_VERSION).putLong(0);
+        }
+
+        String sql = pageQuery(statuses);
+        LocalDateTime lower = from != null ? from.atStartOfDay() : MIN_TIME;
+        LocalDateTime upper = to != null ? to.plusDays(1).atStartOfDay() : MAX_TIME;
+        LocalDateTime afterTime = lower;
+        long afterId = Long.MIN_VALUE;
+        long total = 0;
+        do {
+            page.clear();
+            jdbcTemplate.query(sql, page::add, pageArgs(lower, upper, afterTime, afterId, statuses));
+            if (page.size == 0) {
+                break;
+            }
+            if (csv) {
+                writeCsv(page, out, drinkNames, baristaNames);
+            } else {
+                writeRowGroup(page, out);
+            }
+            afterTime = page.orderTimes[page.size - 1];
+            afterId = page.ids[page.size - 1];
+            total += page.size;
+        } while (page.size == pageSize);
+
+        if (!csv) {
+            out.putInt(0).putLong(total);
+        }
+        out.flush();
+        log.info("Exported {} orders as {} in {} ms", total, format, (System.nanoTime() - started) / 1_000_000);
+        return total;
+    }
+
+    /**
+     * Keyset page over both tables. Each branch is limited on its own so
+     * neither materializes more than a page; an order archived mid-export
+     * keeps its (order_time, id) key and is seen exactly once.
+     */
+    private String pageQuery(List<OrderStatus> statuses) {
+        String where = "order_time >= ? AND order_time < ? AND (order_time > ? OR (order_time = ? AND id > ?))";
+        if (statuses != null && !statuses.isEmpty()) {
+            where += " AND status IN (" + String.join(", ", statuses.stream().map(s -> "?").toList()) + ")";
+        }
+        String branch = "SELECT " + COLUMNS + " FROM %s WHERE " + where + " ORDER BY order_time, id LIMIT ?";
+        return "(" + branch.formatted("coffee_order_history") + ") UNION ALL ("
+                + branch.formatted("coffee_orders") + ") ORDER BY order_time, id LIMIT ?";
+    }
+
+    private Object[] pageArgs(LocalDateTime lower, LocalDateTime upper, LocalDateTime afterTime, long afterId,
+            List<OrderStatus> statuses) {
+        List<Object> branch = new ArrayList<>(List.of(lower, upper, afterTime, afterTime, afterId));
+        if (statuses != null) {
+            statuses.forEach(s -> branch.add(s.name()));
+        }
+        branch.add(pageSize);
+        List<Object> args = new ArrayList<>(branch);
+        args.addAll(branch);
+        args.add(pageSize);
+        return args.toArray();
+    }
+
+    private void writeCsv(OrderPage page, ChannelOut out, Map<Long, String> drinkNames,
+            Map<Long, String> baristaNames) throws IOException {
+        StringBuilder line = out.line;
+        for (int i = 0; i < page.size; i++) {
+            line.append(page.ids[i]).append(',');
+            time(line, page.orderTimes[i]).append(',');
+            line.append(page.statuses[i]).append(',');
+            quoted(line, page.customerNames[i]).append(',');
+            id(line, page.customerIds[i]).append(',');
+            line.append(page.drinkIds[i]).append(',');
+            quoted(line, drinkNames.get(page.drinkIds[i])).append(',');
+            id(line, page.baristaIds[i]).append(',');
+            quoted(line, baristaNames.get(page.baristaIds[i])).append(',');
+            line.append(page.loyal[i]).append(',');
+            line.append(page.priorityScores[i]).append(',');
+            line.append(page.timesSkipped[i]).append(',');
+            time(line, page.hardDeadlines[i]).append(',');
+            time(line, page.completedTimes[i]).append(',');
+            if (page.completedTimes[i] != null) {
+                line.append(Duration.between(page.orderTimes[i], page.completedTimes[i]).toMinutes());
+            }
+            line.append('\n');
+            if (line.length() >= CSV_FLUSH_CHARS) {
+                out.flushLine();
+            }
+        }
+        out.flushLine();
+    }
+
+    private static void writeRowGroup(OrderPage page, ChannelOut out) throws IOException {
+        int n = page.size;
+        out.putInt(n);
+        for (int i = 0; i < n; i++) {
+            out.putLong(page.ids[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putLong(millis(page.orderTimes[i]));
+        }
+        for (int i = 0; i < n; i++) {
+            out.putLong(millis(page.completedTimes[i]));
+        }
+        for (int i = 0; i < n; i++) {
+            out.putLong(millis(page.hardDeadlines[i]));
+        }
+        for (int i = 0; i < n; i++) {
+            out.putLong(page.drinkIds[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putLong(page.baristaIds[i] != null ? page.baristaIds[i] : -1L);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putLong(page.customerIds[i] != null ? page.customerIds[i] : -1L);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putDouble(page.priorityScores[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putInt(page.timesSkipped[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            out.putByte((byte) page.statuses[i].ordinal());
+        }
+        for (int i = 0; i < n; i++) {
+            out.putByte((byte) (page.loyal[i] ? 1 : 0));
+        }
+    }
+
+    /**
+     * Stats aggregates as tidy CSV ({@code section,key,metric,value}): the
+     * columnar history scan and the time-slot rollups for the range. Both are
+     * pre-aggregated, unlike the dashboard KPIs, which hydrate every order.
+     */
+    public void exportStats(LocalDate from, LocalDate to, WritableByteChannel channel) throws IOException {
+        LocalDate first = from != null ? from : LocalDate.of(1970, 1, 1);
+        LocalDate last = to != null ? to : LocalDate.now();
+        HistoryStatsDTO history = statsService.calculateHistoryStatistics(first, last);
+        List<StatsDTO.TimeSlotPerformance> slots = statsService.getTimeSlotPerformance(from, to);
+
+        ChannelOut out = new ChannelOut(channel);
+        StringBuilder line = out.line;
+        line.append("section,key,metric,value\n");
+        String range = first + ".." + last;
+        metric(line, "history", range, "ordersCompleted", history.getOrdersCompleted());
+        metric(line, "history", range, "avgWaitTime", history.getAvgWaitTime());
+        metric(line, "history", range, "weightedAvgWait", history.getWeightedAvgWait());
+        metric(line, "history", range, "maxWaitTime", history.getMaxWaitTime());
+        metric(line, "history", range, "timeoutCount", history.getTimeoutCount());
+        metric(line, "history", range, "timeoutRate", history.getTimeoutRate());
+        metric(line, "history", range, "loyalOrders", history.getLoyalOrders());
+        for (StatsDTO.TimeSlotPerformance s : slots) {
+            metric(line, "timeslot", s.getTimeSlot(), "customersArrived", s.getCustomersArrived());
+            metric(line, "timeslot", s.getTimeSlot(), "ordersCompleted", s.getOrdersCompleted());
+            metric(line, "timeslot", s.getTimeSlot(), "avgWait", s.getAvgWait());
+            metric(line, "timeslot", s.getTimeSlot(), "maxWait", s.getMaxWait());
+            metric(line, "timeslot", s.getTimeSlot(), "timeoutPercent", s.getTimeoutPercent());
+            metric(line, "timeslot", s.getTimeSlot(), "fairnessViolations", s.getFairnessViolations());
+        }
+        out.flushLine();
+        out.flush();
+    }
+
+    /**
+     * Every journaled lifecycle event between {@code from} and {@code to}
+     * (inclusive dates, both optional) as CSV, in journal order: the full
+     * PLACED to PICKED_UP trail that the order tables only keep the last
+     * state of. Streamed from the segment files by
+     * {@link OrderEventJournal#replay}. Returns the number of events written.
+     */
+    public long exportEvents(LocalDate from, LocalDate to, WritableByteChannel channel) throws IOException {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        long started = System.nanoTime();
+        LocalDateTime lower = from != null ? from.atStartOfDay() : MIN_TIME;
+        LocalDateTime upper = to != null ? to.plusDays(1).atStartOfDay() : MAX_TIME;
+        ChannelOut out = new ChannelOut(channel);
+        StringBuilder line = out.line;
+        out.text("seq,timestamp,order_id,barista_id,priority_score,type\n");
+
+        long[] total = {0};
+        try {
+            orderEventJournal.replay(event -> {
+                if (event.timestamp().isBefore(lower) || !event.timestamp().isBefore(upper)) {
+                    return;
+                }
+                line.append(event.seq()).append(',');
+                time(line, event.timestamp()).append(',');
+                line.append(event.orderId()).append(',');
+                id(line, event.baristaId()).append(',');
+                line.append(event.priorityScore()).append(',');
+                line.append(event.type()).append('\n');
+                total[0]++;
+                if (line.length() >= CSV_FLUSH_CHARS) {
+                    try {
+                        out.flushLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        log.info("Exported {} order events in {} ms", total[0], (System.nanoTime() - started) / 1_000_000);
+        return total[0];
+    }
+
+    private static void metric(StringBuilder line, String section, String key, String metric, Object value) {
+        line.append(section).append(',');
+        quoted(line, key).append(',').append(metric).append(',').append(value).append('\n');
+    }
+
+    private static StringBuilder time(StringBuilder line, LocalDateTime time) {
+        if (time != null) {
+            CSV_TIME.formatTo(time, line);
+        }
+        return line;
+    }
+
+    private static StringBuilder id(StringBuilder line, Long id) {
+        return id != null ? line.append(id.longValue()) : line;
+    }
+
+    // RFC 4180: quote only when needed, double embedded quotes
+    private static StringBuilder quoted(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time != null ? ColumnarHistoryStore.toMillis(time) : -1L;
+    }
+
+    /**
+     * One page of rows as parallel arrays, reused across pages.
+     */
+    private static final class OrderPage {
+        final long[] ids;
+        final LocalDateTime[] orderTimes;
+        final OrderStatus[] statuses;
+        final String[] customerNames;
+        final Long[] customerIds;
+        final long[] drinkIds;
+        final Long[] baristaIds;
+        final boolean[] loyal;
+        final double[] priorityScores;
+        final int[] timesSkipped;
+        final LocalDateTime[] hardDeadlines;
+        final LocalDateTime[] completedTimes;
+        int size;
+
+        OrderPage(int capacity) {
+            ids = new long[capacity];
+            orderTimes = new LocalDateTime[capacity];
+            statuses = new OrderStatus[capacity];
+            customerNames = new String[capacity];
+            customerIds = new Long[capacity];
+            drinkIds = new long[capacity];
+            baristaIds = new Long[capacity];
+            loyal = new boolean[capacity];
+            priorityScores = new double[capacity];
+            timesSkipped = new int[capacity];
+            hardDeadlines = new LocalDateTime[capacity];
+            completedTimes = new LocalDateTime[capacity];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            int i = size++;
+            ids[i] = rs.getLong(1);
+            orderTimes[i] = rs.getObject(2, LocalDateTime.class);
+            statuses[i] = OrderStatus.valueOf(rs.getString(3));
+            customerNames[i] = rs.getString(4);
+            customerIds[i] = rs.getObject(5, Long.class);
+            drinkIds[i] = rs.getLong(6);
+            baristaIds[i] = rs.getObject(7, Long.class);
+            loyal[i] = rs.getBoolean(8);
+            priorityScores[i] = rs.getDouble(9);
+            timesSkipped[i] = rs.getInt(10);
+            hardDeadlines[i] = rs.getObject(11, LocalDateTime.class);
+            completedTimes[i] = rs.getObject(12, LocalDateTime.class);
+        }
+    }
+
+    /**
+     * Big-buffer writer over a channel; text is staged in {@link #line} and
+     * encoded in chunks.
+     */
+    private static final class ChannelOut {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES)
+                .order(ColumnarHistoryStore.BYTE_ORDER);
+        final StringBuilder line = new StringBuilder(CSV_FLUSH_CHARS * 2);
+
+        ChannelOut(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        ChannelOut text(String text) throws IOException {
+            line.append(text);
+            flushLine();
+            return this;
+        }
+
+        void flushLine() throws IOException {
+            if (line.isEmpty()) {
+                return;
+            }
+            byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+            line.setLength(0);
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        ChannelOut putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            return this;
+        }
+
+        ChannelOut putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            return this;
+        }
+
+        ChannelOut putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            return this;
+        }
+
+        ChannelOut putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+            return this;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        void flush() throws IOException {
+            flushLine();
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.OrderEventMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed events to a local NDJSON file, one event per line. Meant
+ * for tests and local debugging; a no-op unless
+ * {@code coffee.outbox.file-sink.path} is set. Always registered (rather than
+ * conditional) so the setting still applies to AOT-processed builds, where
+ * bean conditions are fixed at build time.
+ */
+@Component
+@Slf4j
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+
+    public FileOutboxSink(@Value("${coffee.outbox.file-sink.path:}") String path, JsonMapper jsonMapper)
+            throws IOException {
+        this.file = path.isBlank() ? null : Path.of(path);
+        this.jsonMapper = jsonMapper;
+        if (file == null) {
+            return;
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        log.info("Outbox file sink writing to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void deliver(List<OrderEventMessage> batch) throws IOException {
+        if (file == null) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder(batch.size() * 160);
+        for (OrderEventMessage message : batch) {
+            lines.append(jsonMapper.writeValueAsString(message)).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false); // Durable before the relay deletes the rows
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the live queue: waiting orders, preparing timers and
+ * barista occupancy. Rebuilt once at boot by {@link WarmStartService} and kept
+ * in step by the order write paths afterwards.
+ */
+@Component
+public class LiveQueueState {
+
+    private final Map<Long, QueuedOrder> waiting = new ConcurrentHashMap<>();
+    private final Map<Long, PreparingOrder> preparing = new ConcurrentHashMap<>();
+    private final Set<Long> activeBaristaIds = ConcurrentHashMap.newKeySet();
+
+    // Mirrors 'waiting' by priority bucket for ETA prefix sums; guarded by itself
+    private final PriorityFenwickTree queueIndex = new PriorityFenwickTree();
+
+    // Mirrors 'waiting' by hard deadline, per second; guarded by queueIndex too
+    private final DeadlineCalendar deadlines = new DeadlineCalendar();
+
+    // Waiting orders per prep time, for the longest one; guarded by queueIndex too
+    private final TreeMap<Integer, Integer> prepTimes = new TreeMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Record the current status of an order. The snapshot is taken now but only
+     * applied once the surrounding transaction commits, so a rollback never
+     * leaves the in-memory queue ahead of the database.
+     */
+    public void track(Order order) {
+        if (order.getId() == null) {
+            return;
+        }
+        AfterCommit.run(snapshot(order));
+    }
+
+    /**
+     * Apply an order straight away, bypassing transaction synchronization. Used
+     * by the warm start, which reads inside a read-only transaction.
+     */
+    public void restore(Order order) {
+        if (order.getId() != null) {
+            snapshot(order).run();
+        }
+    }
+
+    private Runnable snapshot(Order order) {
+        long id = order.getId();
+        OrderStatus status = order.getStatus();
+        if (status == OrderStatus.WAITING || status == OrderStatus.PLACED) {
+            QueuedOrder queued = new QueuedOrder(id, order.getOrderTime(), order.getHardDeadline(),
+                    order.getDrink().getPrepTimeMinutes(), order.isLoyal(), order.getPriorityScore());
+            return () -> {
+                preparing.remove(id);
+                putWaiting(queued);
+            };
+        }
+        if (status == OrderStatus.PREPARING) {
+            PreparingOrder prep = new PreparingOrder(id,
+                    order.getAssignedBarista() != null ? order.getAssignedBarista().getId() : null,
+                    order.getDrink().getPrepTimeMinutes(), order.getEstimatedCompletionTime());
+            return () -> {
+                removeWaiting(id);
+                preparing.put(id, prep);
+            };
+        }
+        return () -> forget(id);
+    }
+
+    public void forget(Long orderId) {
+        removeWaiting(orderId);
+        preparing.remove(orderId);
+    }
+
+    private void putWaiting(QueuedOrder queued) {
+        synchronized (queueIndex) {
+            QueuedOrder previous = waiting.put(queued.id(), queued);
+            if (previous != null) {
+                queueIndex.add(PriorityFenwickTree.bucketOf(previous.priorityScore()), -previous.prepMinutes(), -1);
+                removePrepTime(previous.prepMinutes());
+            }
+            queueIndex.add(PriorityFenwickTree.bucketOf(queued.priorityScore()), queued.prepMinutes(), 1);
+            prepTimes.merge(queued.prepMinutes(), 1, Integer::sum);
+            // Only on entry: a re-score must not re-arm a deadline that was already reported
+            if (previous == null && queued.hardDeadline() != null) {
+                deadlines.add(queued.id(), toSecond(queued.hardDeadline()));
+            }
+        }
+    }
+
+    private void removeWaiting(Long orderId) {
+        synchronized (queueIndex) {
+            QueuedOrder previous = waiting.remove(orderId);
+            if (previous != null) {
+                queueIndex.add(PriorityFenwickTree.bucketOf(previous.priorityScore()), -previous.prepMinutes(), -1);
+                removePrepTime(previous.prepMinutes());
+            }
+            deadlines.remove(orderId);
+        }
+    }
+
+    private void removePrepTime(int prepMinutes) {
+        prepTimes.computeIfPresent(prepMinutes, (minutes, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public void setActiveBaristas(Collection<Barista> baristas) {
+        activeBaristaIds.clear();
+        baristas.forEach(b -> activeBaristaIds.add(b.getId()));
+    }
+
+    /**
+     * Drop all queued and preparing orders, e.g. when the simulation wipes the
+     * order table. Barista roster and readiness are kept.
+     */
+    public void clear() {
+        synchronized (queueIndex) {
+            waiting.clear();
+            queueIndex.clear();
+            deadlines.clear();
+            prepTimes.clear();
+        }
+        preparing.clear();
+    }
+
+    /**
+     * Open the queue for dispatch. Deadlines that had already passed before
+     * the restart are swept silently: the previous run reported them.
+     */
+    public void markReady() {
+        synchronized (queueIndex) {
+            deadlines.advance(toSecond(LocalDateTime.now()));
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Collection<QueuedOrder> getWaitingOrders() {
+        return waiting.values();
+    }
+
+    public Optional<PreparingOrder> getPreparingOrder(long orderId) {
+        return Optional.ofNullable(preparing.get(orderId));
+    }
+
+    public Collection<PreparingOrder> getPreparingOrders() {
+        return preparing.values();
+    }
+
+    public Set<Long> getActiveBaristaIds() {
+        return Set.copyOf(activeBaristaIds);
+    }
+
+    public List<Long> getFreeBaristaIds() {
+        Set<Long> busy = preparing.values().stream()
+                .map(PreparingOrder::baristaId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        return activeBaristaIds.stream().filter(id -> !busy.contains(id)).sorted().toList();
+    }
+
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public int getPreparingCount() {
+        return preparing.size();
+    }
+
+    /**
+     * Total prep minutes queued, O(log n).
+     */
+    public long getWaitingPrepMinutes() {
+        synchronized (queueIndex) {
+            return queueIndex.totalPrepMinutes();
+        }
+    }
+
+    /**
+     * Waiting orders whose hard deadline falls within the next {@code seconds},
+     * most urgent first. Reads only that many per-second buckets.
+     */
+    public List<QueuedOrder> getOrdersDueWithin(LocalDateTime now, int seconds) {
+        List<Long> ids;
+        synchronized (queueIndex) {
+            ids = deadlines.dueWithin(toSecond(now), seconds);
+        }
+        return ids.stream().map(waiting::get).filter(q -> q != null).toList();
+    }
+
+    /**
+     * Waiting orders that {@link #predictEta(long, LocalDateTime)} expects to
+     * be ready only after their hard deadline, most urgent first. No order can
+     * be predicted later than the whole queue draining plus its own prep time,
+     * so only deadlines inside that window are checked. Empty while no barista
+     * is active.
+     */
+    public List<QueuedOrder> getOrdersAtRisk(LocalDateTime now) {
+        int longestPrep;
+        synchronized (queueIndex) {
+            if (prepTimes.isEmpty()) {
+                return List.of();
+            }
+            longestPrep = prepTimes.lastKey();
+        }
+        // The lowest score queues behind everything already waiting
+        LocalDateTime drained = predictEta(-1.0, 0, now).readyTime();
+        if (drained == null) {
+            return List.of();
+        }
+        long window = Duration.between(now, drained).toSeconds() + longestPrep * 60L;
+        return getOrdersDueWithin(now, (int) Math.min(window, DeadlineCalendar.HORIZON_SECONDS)).stream()
+                .filter(q -> predictEta(q.id(), now)
+                        .map(eta -> eta.readyTime() != null && eta.readyTime().isAfter(q.hardDeadline()))
+                        .orElse(false))
+                .toList();
+    }
+
+    /**
+     * Advance the deadline clock and return the waiting orders that have just
+     * run past their hard deadline. Each breach is reported once; the order
+     * stays in the queue.
+     */
+    public List<QueuedOrder> sweepMissedDeadlines(LocalDateTime now) {
+        List<Long> ids;
+        synchronized (queueIndex) {
+            ids = deadlines.advance(toSecond(now));
+        }
+        return ids.stream().map(waiting::get).filter(q -> q != null).toList();
+    }
+
+    private static long toSecond(LocalDateTime time) {
+        return ColumnarHistoryStore.toMillis(time) / 1000;
+    }
+
+    /**
+     * Predicted ready time of an order already in the queue, or empty if it
+     * isn't waiting. See {@link #predictEta(double, int, LocalDateTime)}.
+     */
+    public Optional<Eta> predictEta(long orderId, LocalDateTime now) {
+        QueuedOrder queued = waiting.get(orderId);
+        if (queued == null) {
+            return Optional.empty();
+        }
+        return Optional.of(predict(queued.priorityScore(), queued.prepMinutes(), now, true));
+    }
+
+    /**
+     * Predicted ready time for an order with this score that is not queued yet.
+     *
+     * Assumes orders are served in priority order: everything in the same or a
+     * higher score bucket goes first. That work is shared out over the active
+     * baristas as each one frees up, and the order's own prep time is added.
+     */
+    public Eta predictEta(double priorityScore, int prepMinutes, LocalDateTime now) {
+        return predict(priorityScore, prepMinutes, now, false);
+    }
+
+    private Eta predict(double priorityScore, int prepMinutes, LocalDateTime now, boolean queued) {
+        int bucket = PriorityFenwickTree.bucketOf(priorityScore);
+        long aheadMinutes;
+        long aheadCount;
+        synchronized (queueIndex) {
+            aheadMinutes = queueIndex.prepMinutesThrough(bucket);
+            aheadCount = queueIndex.countThrough(bucket);
+        }
+        if (queued) {
+            aheadMinutes -= prepMinutes; // Don't count the order against itself
+            aheadCount -= 1;
+        }
+
+        // Minutes until each active barista is free, soonest first
+        Map<Long, LocalDateTime> busyUntil = new HashMap<>();
+        preparing.values().forEach(p -> {
+            if (p.baristaId() != null && p.estimatedCompletionTime() != null) {
+                busyUntil.merge(p.baristaId(), p.estimatedCompletionTime(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        });
+        double[] freeIn = activeBaristaIds.stream()
+                .mapToDouble(id -> {
+                    LocalDateTime until = busyUntil.get(id);
+                    return until == null || !until.isAfter(now) ? 0.0
+                            : Duration.between(now, until).toSeconds() / 60.0;
+                })
+                .sorted()
+                .toArray();
+        if (freeIn.length == 0) {
+            return new Eta(null, Math.max(0, aheadCount));
+        }
+
+        // Smallest t with sum(max(0, t - freeIn[i])) == aheadMinutes
+        double startIn = 0;
+        double freeSum = 0;
+        for (int j = 1; j <= freeIn.length; j++) {
+            freeSum += freeIn[j - 1];
+            startIn = (aheadMinutes + freeSum) / j;
+            if (j == freeIn.length || startIn <= freeIn[j]) {
+                break;
+            }
+        }
+        long readyInSeconds = Math.round((startIn + prepMinutes) * 60);
+        return new Eta(now.plusSeconds(readyInSeconds), Math.max(0, aheadCount));
+    }
+
+    public record QueuedOrder(long id, LocalDateTime orderTime, LocalDateTime hardDeadline,
+            int prepMinutes, boolean loyal, double priorityScore) {
+    }
+
+    public record Eta(LocalDateTime readyTime, long ordersAhead) {
+    }
+
+    public record PreparingOrder(long id, Long baristaId, int prepMinutes,
+            LocalDateTime estimatedCompletionTime) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.repository.DrinkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gatekeeper in front of {@link OrderService#placeOrder}. Two checks, cheapest
+ * first: a per-client token bucket, then a load check that refuses orders the
+ * live queue could not finish within the 10-minute hard deadline. Both answer
+ * straight from memory, so a refused order costs no database write.
+ */
+@Service
+@Slf4j
+public class OrderAdmissionService {
+
+    public enum Outcome {
+        ADMITTED, RATE_LIMITED, OVERLOADED
+    }
+
+    public record Decision(Outcome outcome, long retryAfterSeconds, double predictedWaitMinutes) {
+        public boolean admitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    private static final long IDLE_BUCKET_NANOS = Duration.ofMinutes(10).toNanos();
+
+    private final LiveQueueState liveQueueState;
+    private final DrinkRepository drinkRepository;
+    private final double refillPerNano;
+    private final double burst;
+    private final double maxPredictedWaitMinutes;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public OrderAdmissionService(LiveQueueState liveQueueState, DrinkRepository drinkRepository,
+            @Value("${coffee.admission.orders-per-minute:6}") double ordersPerMinute,
+            @Value("${coffee.admission.burst:3}") int burst,
+            @Value("${coffee.admission.max-predicted-wait-minutes:10}") double maxPredictedWaitMinutes) {
+        this.liveQueueState = liveQueueState;
+        this.drinkRepository = drinkRepository;
+        this.refillPerNano = ordersPerMinute / Duration.ofMinutes(1).toNanos();
+        this.burst = burst;
+        this.maxPredictedWaitMinutes = maxPredictedWaitMinutes;
+    }
+
+    public Decision admit(String clientKey, Long drinkId) {
+        long waitNanos = buckets.computeIfAbsent(clientKey, k -> new TokenBucket(burst)).tryConsume();
+        if (waitNanos > 0) {
+            return new Decision(Outcome.RATE_LIMITED, Math.max(1, Duration.ofNanos(waitNanos).toSeconds() + 1), 0);
+        }
+
+        // Until the warm start has rebuilt the queue there is nothing to judge by
+        if (!liveQueueState.isReady()) {
+            return new Decision(Outcome.ADMITTED, 0, 0);
+        }
+        int prepMinutes = drinkId == null ? 0
+                : drinkRepository.findById(drinkId).map(Drink::getPrepTimeMinutes).orElse(0);
+        double predicted = predictWaitMinutes(prepMinutes, LocalDateTime.now());
+        if (predicted > maxPredictedWaitMinutes) {
+            // The backlog drains roughly one minute of start delay per minute
+            long retryAfter = Math.max(1, (long) Math.ceil((predicted - maxPredictedWaitMinutes) * 60));
+            log.info("Shedding order from {}: predicted wait {} min", clientKey, String.format("%.1f", predicted));
+            return new Decision(Outcome.OVERLOADED, retryAfter, predicted);
+        }
+        return new Decision(Outcome.ADMITTED, 0, predicted);
+    }
+
+    /**
+     * Wait a new order would see: all queued prep work plus what is left of
+     * the drinks in progress, spread over the active baristas, then its own
+     * prep time.
+     */
+    double predictWaitMinutes(int prepMinutes, LocalDateTime now) {
+        int baristas = liveQueueState.getActiveBaristaIds().size();
+        if (baristas == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double backlog = liveQueueState.getWaitingPrepMinutes();
+        for (LiveQueueState.PreparingOrder prep : liveQueueState.getPreparingOrders()) {
+            if (prep.estimatedCompletionTime() != null && prep.estimatedCompletionTime().isAfter(now)) {
+                backlog += Duration.between(now, prep.estimatedCompletionTime()).toSeconds() / 60.0;
+            }
+        }
+        return backlog / baristas + prepMinutes;
+    }
+
+    /**
+     * Drop buckets of clients that have gone quiet; an idle bucket is full
+     * anyway, so recreating it later changes nothing.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.idleFor(now) > IDLE_BUCKET_NANOS);
+    }
+
+    private final class TokenBucket {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one is available
+         */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+
+        synchronized long idleFor(long now) {
+            return now - lastRefill;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.repository.OrderHistoryRepository;
+import com.example.coffee_shop.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Moves terminal orders out of coffee_orders into coffee_order_history on a
+ * rolling basis, so the hot table only holds the live queue plus a short tail
+ * of recently finished orders.
+ *
+ * Each batch is copied and deleted in its own short transaction to keep lock
+ * time on the hot table small.
+ */
+@Service
+@Slf4j
+public class OrderArchiver {
+
+    private static final EnumSet<OrderStatus> TERMINAL_STATUSES = EnumSet.of(OrderStatus.COMPLETED,
+            OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final OrderReadModel orderReadModel;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMinutes;
+    private final int batchSize;
+
+    public OrderArchiver(OrderRepository orderRepository,
+            OrderHistoryRepository orderHistoryRepository,
+            OrderReadModel orderReadModel,
+            PlatformTransactionManager transactionManager,
+            @Value("${coffee.archive.retention-minutes:30}") int retentionMinutes,
+            @Value("${coffee.archive.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.orderReadModel = orderReadModel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMinutes = retentionMinutes;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${coffee.archive.interval-ms:60000}")
+    public void archiveTerminalOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} terminal orders finished before {}", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.findArchivableIds(TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        orderHistoryRepository.copyFromOrders(ids, LocalDateTime.now());
+        orderRepository.deleteByIdIn(ids);
+        orderReadModel.evict(ids); // Lookups fall back to coffee_order_history from now on
+        return ids.size();
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderEventType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of order lifecycle events, for auditing and
+ * offline analytics. Sits beside the database rather than in it, so recording
+ * a transition costs a 48-byte buffered write instead of another row.
+ *
+ * Records are fixed size, little endian:
+ *
+ * <pre>
+ * seq          long    strictly increasing across segments
+ * timestamp    long    wall-clock millis, encoded as in ColumnarHistoryStore
+ * orderId      long
+ * baristaId    long    -1 when none
+ * priority     double  score at the time of the event
+ * type         byte    OrderEventType ordinal
+ * (padding)    3 bytes
+ * crc          int     CRC32C of the preceding 44 bytes
+ * </pre>
+ *
+ * Events are buffered and written plus fsynced together every
+ * {@code coffee.journal.fsync-interval-ms} (group commit) on the journal's own
+ * thread, so other scheduled work can't stretch that window. A failed write
+ * keeps the buffer for the next attempt; if the buffer fills up meanwhile,
+ * new events are dropped and counted rather than failing the already
+ * committed transaction that produced them. On open, a torn or corrupt tail
+ * is truncated.
+ *
+ * With {@code coffee.journal.read-only} (the export CLI) the segments are only
+ * ever opened for reading and nothing can be recorded, so a second process
+ * never truncates or appends to the live app's journal.
+ */
+@Service
+@Slf4j
+public class OrderEventJournal {
+
+    static final int RECORD_BYTES = 48;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int CRC_OFFSET = 44;
+    private static final OrderEventType[] TYPES = OrderEventType.values();
+
+    public record OrderEvent(long seq, LocalDateTime timestamp, long orderId, Long baristaId, double priorityScore,
+            OrderEventType type) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long fsyncIntervalMs;
+    private final boolean readOnly;
+    private final ByteBuffer pending;
+
+    private FileChannel channel;
+    private int segmentIndex;
+    private long segmentSize;
+    private long nextSeq = 1;
+    private boolean unsynced; // Written but not yet fsynced
+    private long dropped; // Events lost to a full buffer since the last successful flush
+    private ScheduledExecutorService flusher;
+
+    public OrderEventJournal(@Value("${coffee.journal.dir:data/journal}") String directory,
+            @Value("${coffee.journal.segment-bytes:67108864}") long segmentBytes,
+            @Value("${coffee.journal.buffer-records:4096}") int bufferRecords,
+            @Value("${coffee.journal.fsync-interval-ms:100}") long fsyncIntervalMs,
+            @Value("${coffee.journal.read-only:false}") boolean readOnly) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.readOnly = readOnly;
+        this.pending = ByteBuffer.allocateDirect(bufferRecords * RECORD_BYTES).order(BYTE_ORDER);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (readOnly) {
+            openReadOnly();
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            openLast(segments);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "order-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Reads see the segments as they were at open; a torn tail just ends the scan
+    private void openReadOnly() throws IOException {
+        List<Path> segments = Files.isDirectory(directory) ? listSegments() : List.of();
+        if (!segments.isEmpty()) {
+            Path last = segments.get(segments.size() - 1);
+            segmentIndex = segmentNumber(last);
+            segmentSize = Files.size(last);
+        }
+        log.info("Order journal: read-only, {} segments in {}", segments.size(), directory.toAbsolutePath());
+    }
+
+    private void openLast(List<Path> segments) throws IOException {
+        Path last = segments.get(segments.size() - 1);
+        segmentIndex = segments.size() - 1;
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Keep the valid prefix of the last segment, drop whatever a crash left behind
+        long[] lastSeq = {0};
+        long valid = scan(channel, 0, Long.MAX_VALUE, event -> {
+            lastSeq[0] = event.seq();
+            return true;
+        });
+        if (valid < channel.size()) {
+            log.warn("Order journal: truncating {} bytes of torn tail in {}", channel.size() - valid, last);
+            channel.truncate(valid);
+        }
+        segmentSize = valid;
+        channel.position(valid);
+        if (lastSeq[0] == 0 && segments.size() > 1) {
+            // Empty last segment; continue numbering from the previous one
+            try (FileChannel previous = FileChannel.open(segments.get(segments.size() - 2), StandardOpenOption.READ)) {
+                scan(previous, 0, Long.MAX_VALUE, event -> {
+                    lastSeq[0] = event.seq();
+                    return true;
+                });
+            }
+        }
+        nextSeq = lastSeq[0] + 1;
+        log.info("Order journal: {} segments, next seq {} in {}", segments.size(), nextSeq,
+                directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (readOnly) {
+            return;
+        }
+        flusher.shutdown();
+        synchronized (this) {
+            flush();
+            channel.close();
+        }
+    }
+
+    /**
+     * Journal an event for the order's current state once the surrounding
+     * transaction commits, so rolled-back transitions never appear.
+     */
+    public void record(Order order, OrderEventType type) {
+        if (readOnly) {
+            throw new IllegalStateException("Order journal is read-only");
+        }
+        if (order.getId() == null) {
+            return;
+        }
+        long orderId = order.getId();
+        long baristaId = order.getAssignedBarista() != null ? order.getAssignedBarista().getId() : -1L;
+        double priority = order.getPriorityScore();
+        AfterCommit.run(() -> append(orderId, baristaId, priority, type));
+    }
+
+    // Runs after commit: must not throw
+    private synchronized void append(long orderId, long baristaId, double priority, OrderEventType type) {
+        if (pending.remaining() < RECORD_BYTES) {
+            flush();
+            if (pending.remaining() < RECORD_BYTES) {
+                if (dropped++ == 0) {
+                    log.error("Order journal buffer full and not writable, dropping events");
+                }
+                return;
+            }
+        }
+        int start = pending.position();
+        pending.putLong(nextSeq++)
+                .putLong(ColumnarHistoryStore.toMillis(LocalDateTime.now()))
+                .putLong(orderId)
+                .putLong(baristaId)
+                .putDouble(priority)
+                .put((byte) type.ordinal())
+                .put((byte) 0).put((byte) 0).put((byte) 0);
+        CRC32C crc = new CRC32C();
+        crc.update(pending.duplicate().position(start).limit(start + CRC_OFFSET));
+        pending.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Group commit: write everything buffered since the last call and fsync
+     * once. On an I/O error whatever was not written stays buffered and the
+     * next call tries again.
+     */
+    public synchronized void flush() {
+        if (pending.position() == 0 && !unsynced) {
+            return;
+        }
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) {
+                if (segmentSize >= segmentBytes) {
+                    channel.force(false);
+                    channel.close();
+                    openSegment(segmentIndex + 1);
+                }
+                int limit = pending.limit();
+                pending.limit(pending.position() + (int) Math.min(pending.remaining(), segmentBytes - segmentSize));
+                try {
+                    while (pending.hasRemaining()) {
+                        segmentSize += channel.write(pending);
+                        unsynced = true;
+                    }
+                } finally {
+                    pending.limit(limit);
+                }
+            }
+            channel.force(false);
+            unsynced = false;
+            if (dropped > 0) {
+                log.error("Order journal writable again; {} events were dropped", dropped);
+                dropped = 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write order journal, keeping {} buffered bytes for the next attempt",
+                    pending.remaining(), e);
+        } finally {
+            pending.compact(); // Keeps only what was not written
+        }
+    }
+
+    /**
+     * Feed every durable event, oldest first, to {@code consumer}. Events
+     * still in the write buffer are flushed first. Backs the events export
+     * (ExportService).
+     */
+    public void replay(Consumer<OrderEvent> consumer) {
+        flush();
+        try {
+            for (Path segment : listSegments()) {
+                try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    scan(in, 0, Long.MAX_VALUE, event -> {
+                        consumer.accept(event);
+                        return true;
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read order journal", e);
+        }
+    }
+
+    /**
+     * Events of one order, oldest first, written at or after {@code from}
+     * (null: from the start). The scan starts at the first record of that
+     * time, found by binary search over the fixed-size records, and ends at
+     * the order's PICKED_UP event, at the first record after {@code to}
+     * (null: no bound) or at the end of the journal. Nothing is flushed;
+     * buffered events are read from memory.
+     */
+    public List<OrderEvent> getEvents(long orderId, LocalDateTime from, LocalDateTime to) {
+        long fromMillis = from != null ? ColumnarHistoryStore.toMillis(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? ColumnarHistoryStore.toMillis(to) : Long.MAX_VALUE;
+
+        // Durable end and buffered tail taken together, so no event is seen twice or missed
+        int lastSegment;
+        long lastSegmentSize;
+        ByteBuffer buffered;
+        synchronized (this) {
+            lastSegment = segmentIndex;
+            lastSegmentSize = segmentSize;
+            ByteBuffer copy = pending.duplicate().flip();
+            buffered = ByteBuffer.allocate(copy.remaining()).order(BYTE_ORDER).put(copy).flip();
+        }
+
+        List<OrderEvent> events = new ArrayList<>();
+        boolean[] stopped = {false};
+        Predicate<OrderEvent> visit = event -> {
+            if (ColumnarHistoryStore.toMillis(event.timestamp()) > toMillis) {
+                stopped[0] = true;
+            } else if (event.orderId() == orderId) {
+                events.add(event);
+                stopped[0] = event.type() == OrderEventType.PICKED_UP; // Nothing follows a pickup
+            }
+            return !stopped[0];
+        };
+        try {
+            List<Path> segments = listSegments().stream()
+                    .filter(p -> segmentNumber(p) <= lastSegment).toList();
+            int first = 0;
+            for (int i = segments.size() - 1; i > 0; i--) {
+                if (firstTimestamp(segments.get(i)) <= fromMillis) {
+                    first = i;
+                    break;
+                }
+            }
+            for (int i = first; i < segments.size() && !stopped[0]; i++) {
+                Path segment = segments.get(i);
+                try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    long end = segmentNumber(segment) == lastSegment ? lastSegmentSize : in.size();
+                    scan(in, i == first ? lowerBound(in, end, fromMillis) : 0, end, visit);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read order journal", e);
+        }
+        CRC32C crc = new CRC32C();
+        while (!stopped[0] && buffered.remaining() >= RECORD_BYTES) {
+            OrderEvent event = decode(buffered, buffered.position(), crc);
+            if (event == null || !visit.test(event)) {
+                break;
+            }
+            buffered.position(buffered.position() + RECORD_BYTES);
+        }
+        return events;
+    }
+
+    /**
+     * Byte offset of the first record in [0, end) with a timestamp at or after
+     * {@code millis}. Timestamps are taken under the journal lock, so they only
+     * go backwards if the wall clock does.
+     */
+    private static long lowerBound(FileChannel in, long end, long millis) throws IOException {
+        ByteBuffer stamp = ByteBuffer.allocate(Long.BYTES).order(BYTE_ORDER);
+        long low = 0;
+        long high = end / RECORD_BYTES;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            stamp.clear();
+            in.read(stamp, mid * RECORD_BYTES + 8);
+            if (stamp.getLong(0) < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low * RECORD_BYTES;
+    }
+
+    private static long firstTimestamp(Path segment) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer stamp = ByteBuffer.allocate(Long.BYTES).order(BYTE_ORDER);
+            return in.read(stamp, 8) == Long.BYTES ? stamp.getLong(0) : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Reads records of {@code in} from byte {@code start} until {@code end},
+     * the first invalid one, or until {@code visitor} returns false.
+     *
+     * @return byte offset just past the last valid record visited
+     */
+    private static long scan(FileChannel in, long start, long end, Predicate<OrderEvent> visitor)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024).order(BYTE_ORDER);
+        long position = start;
+        CRC32C crc = new CRC32C();
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = in.read(buffer, position);
+            if (read < RECORD_BYTES) {
+                return position;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_BYTES) {
+                OrderEvent event = decode(buffer, buffer.position(), crc);
+                if (event == null || !visitor.test(event)) {
+                    return position;
+                }
+                buffer.position(buffer.position() + RECORD_BYTES);
+                position += RECORD_BYTES;
+            }
+        }
+        return position;
+    }
+
+    // Null if the record at start fails its checksum
+    private static OrderEvent decode(ByteBuffer buffer, int start, CRC32C crc) {
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + CRC_OFFSET));
+        int type = buffer.get(start + 40);
+        if ((int) crc.getValue() != buffer.getInt(start + CRC_OFFSET) || type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        long baristaId = buffer.getLong(start + 24);
+        return new OrderEvent(
+                buffer.getLong(start),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(start + 8)), ZoneOffset.UTC),
+                buffer.getLong(start + 16),
+                baristaId < 0 ? null : baristaId,
+                buffer.getDouble(start + 32),
+                TYPES[type]);
+    }
+
+    private void openSegment(int index) throws IOException {
+        segmentIndex = index;
+        Path file = directory.resolve(String.format("journal-%06d.log", index));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segmentSize = channel.size();
+        channel.position(segmentSize);
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
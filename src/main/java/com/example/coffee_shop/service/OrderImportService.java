@@ -0,0 +1,599 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.ImportReportDTO;
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.repository.BaristaRepository;
+import com.example.coffee_shop.repository.DrinkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.json.JsonFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of finished orders from a POS export or a backfill, as CSV
+ * (with a header row) or NDJSON (one flat object per line). Column names are
+ * the ones {@link ExportService} writes, so an export can be loaded back;
+ * unknown columns such as id or drink_name are ignored. So is customer_id:
+ * it is the source database's key and would attach orders to unrelated
+ * accounts here, so imported orders keep customer_name only and don't count
+ * toward anyone's loyalty.
+ *
+ * Imports are idempotent. Every row gets a key, the hash of its pos_id column
+ * when there is one and of its parsed values otherwise, recorded in
+ * coffee_import_keys in the same transaction as the order. Rows whose key is
+ * already there are skipped and counted as duplicates, so retrying after a
+ * failure or replaying a file imports nothing twice. Without pos_id, rows
+ * identical in every column count as one order. Two uploads of the same rows
+ * at once can't both insert them: the second fails on the key and can be
+ * retried.
+ *
+ * The upload is parsed as it streams in and checked row by row against the
+ * menu and barista roster held in memory. Valid rows are inserted into
+ * coffee_orders in JDBC batches, each in its own transaction, and the
+ * archiver moves them on like any other finished order. Live orders are
+ * rejected: they have to go through admission and the live queue.
+ */
+@Service
+@Slf4j
+public class OrderImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int PROGRESS_EVERY = 100_000;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final String DEFAULT_CUSTOMER = "POS";
+    private static final EnumSet<OrderStatus> IMPORTABLE = EnumSet.of(OrderStatus.COMPLETED,
+            OrderStatus.CANCELLED);
+
+    private static final String INSERT_KEY = "INSERT INTO coffee_import_keys (import_key, imported_at) VALUES (?, ?)";
+    private static final String INSERT = "INSERT INTO coffee_orders (customer_name, drink_id, barista_id, status, "
+            + "priority_score, order_time, completed_time, times_skipped, is_loyal, hard_deadline) "
+            + "VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DrinkRepository drinkRepository;
+    private final BaristaRepository baristaRepository;
+    private final ColumnarHistoryStore columnarHistoryStore;
+    private final TimeSlotRollupService timeSlotRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public OrderImportService(JdbcTemplate jdbcTemplate,
+            DrinkRepository drinkRepository,
+            BaristaRepository baristaRepository,
+            ColumnarHistoryStore columnarHistoryStore,
+            TimeSlotRollupService timeSlotRollupService,
+            PlatformTransactionManager transactionManager,
+            @Value("${coffee.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.drinkRepository = drinkRepository;
+        this.baristaRepository = baristaRepository;
+        this.columnarHistoryStore = columnarHistoryStore;
+        this.timeSlotRollupService = timeSlotRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public static void checkFormat(String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unknown import format: " + format + " (csv or ndjson)");
+        }
+    }
+
+    /**
+     * Import every valid row and report the rest. Rows committed before a
+     * database error stay imported; the report says where it stopped.
+     */
+    public ImportReportDTO importOrders(InputStream input, String format) throws IOException {
+        checkFormat(format);
+        long started = System.nanoTime();
+        Map<Long, Drink> drinks = drinkRepository.findAll().stream()
+                .collect(Collectors.toMap(Drink::getId, Function.identity()));
+        Map<Long, Barista> baristas = baristaRepository.findAll().stream()
+                .collect(Collectors.toMap(Barista::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        RowReader rows = FORMAT_CSV.equals(format) ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+        Report report = new Report(format);
+        Map<String, Order> batch = new LinkedHashMap<>(batchSize * 2);
+        long batchFirstRow = 0;
+
+        while (true) {
+            try {
+                Map<String, String> fields = rows.next();
+                if (fields == null) {
+                    break;
+                }
+                Order order = toOrder(fields, drinks, baristas, now);
+                if (batch.isEmpty()) {
+                    batchFirstRow = rows.rowNumber();
+                }
+                if (batch.putIfAbsent(importKey(fields.get("pos_id"), order), order) != null) {
+                    report.duplicates++;
+                }
+            } catch (IllegalArgumentException e) {
+                report.reject(rows.rowNumber(), e.getMessage());
+            }
+            report.rowsRead = rows.rowNumber();
+            if (batch.size() == batchSize && !flush(batch, batchFirstRow, report)) {
+                return report.build(started);
+            }
+            if (report.rowsRead % PROGRESS_EVERY == 0) {
+                log.info("Import: {} rows read, {} imported, {} duplicates, {} rejected", report.rowsRead,
+                        report.imported, report.duplicates, report.rejected);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, batchFirstRow, report);
+        }
+        ImportReportDTO result = report.build(started);
+        log.info("Imported {} of {} {} rows in {} ms ({} duplicates, {} rejected)", result.getImported(),
+                result.getRowsRead(), format, result.getElapsedMillis(), result.getDuplicates(), result.getRejected());
+        return result;
+    }
+
+    private boolean flush(Map<String, Order> batch, long firstRow, Report report) {
+        Collection<Order> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                Map<String, Order> fresh = new LinkedHashMap<>(batch);
+                fresh.keySet().removeAll(knownKeys(batch.keySet()));
+                if (fresh.isEmpty()) {
+                    return List.of();
+                }
+                Timestamp importedAt = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(INSERT_KEY, fresh.keySet(), fresh.size(), (ps, key) -> {
+                    ps.setString(1, key);
+                    ps.setTimestamp(2, importedAt);
+                });
+                Collection<Order> orders = fresh.values();
+                jdbcTemplate.batchUpdate(INSERT, orders, orders.size(), (ps, order) -> {
+                    ps.setString(1, order.getCustomerName());
+                    ps.setLong(2, order.getDrink().getId());
+                    if (order.getAssignedBarista() != null) {
+                        ps.setLong(3, order.getAssignedBarista().getId());
+                    } else {
+                        ps.setNull(3, Types.BIGINT);
+                    }
+                    ps.setString(4, order.getStatus().name());
+                    ps.setTimestamp(5, Timestamp.valueOf(order.getOrderTime()));
+                    ps.setTimestamp(6, order.getCompletedTime() != null
+                            ? Timestamp.valueOf(order.getCompletedTime()) : null);
+                    ps.setInt(7, order.getTimesSkipped());
+                    ps.setBoolean(8, order.isLoyal());
+                    ps.setTimestamp(9, Timestamp.valueOf(order.getHardDeadline()));
+                });
+                timeSlotRollupService.recordAll(orders);
+                orders.forEach(columnarHistoryStore::append); // After commit; skips cancelled ones
+                return orders;
+            });
+        } catch (DataAccessException e) {
+            log.error("Import stopped at row {}", firstRow, e);
+            report.rejected += batch.size();
+            report.failure = "Batch of " + batch.size() + " rows starting at row " + firstRow + " failed: "
+                    + e.getMostSpecificCause().getMessage();
+            return false;
+        }
+        report.imported += inserted.size();
+        report.duplicates += batch.size() - inserted.size();
+        batch.clear();
+        return true;
+    }
+
+    private Set<String> knownKeys(Collection<String> keys) {
+        String in = String.join(",", Collections.nCopies(keys.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT import_key FROM coffee_import_keys WHERE import_key IN (" + in + ")", String.class,
+                keys.toArray()));
+    }
+
+    /**
+     * Hex SHA-256 of the row's POS id, or of every value the order is built
+     * from when there is none, so the same row in CSV or NDJSON, with or
+     * without extra columns, gets the same key.
+     */
+    private static String importKey(String posId, Order order) {
+        StringBuilder source = new StringBuilder(128);
+        if (posId != null && !posId.isBlank()) {
+            source.append("pos\u001f").append(posId.trim());
+        } else {
+            source.append("row");
+            for (Object value : new Object[] { order.getDrink().getId(),
+                    order.getAssignedBarista() != null ? order.getAssignedBarista().getId() : null,
+                    order.getStatus(), order.getOrderTime(), order.getCompletedTime(), order.getCustomerName(),
+                    order.getTimesSkipped(), order.isLoyal(), order.getHardDeadline() }) {
+                source.append('\u001f').append(value != null ? value : "");
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE has SHA-256
+        }
+    }
+
+    private static Order toOrder(Map<String, String> fields, Map<Long, Drink> drinks, Map<Long, Barista> baristas,
+            LocalDateTime now) {
+        Long drinkId = parseLong(fields, "drink_id");
+        if (drinkId == null) {
+            throw new IllegalArgumentException("drink_id is required");
+        }
+        Drink drink = drinks.get(drinkId);
+        if (drink == null) {
+            throw new IllegalArgumentException("Unknown drink_id " + drinkId);
+        }
+
+        LocalDateTime orderTime = parseTime(fields, "order_time");
+        if (orderTime == null) {
+            throw new IllegalArgumentException("order_time is required");
+        }
+        if (orderTime.isAfter(now)) {
+            throw new IllegalArgumentException("order_time is in the future");
+        }
+        LocalDateTime completedTime = parseTime(fields, "completed_time");
+
+        String statusText = fields.get("status");
+        OrderStatus status;
+        if (statusText == null) {
+            status = completedTime != null ? OrderStatus.COMPLETED : null;
+        } else {
+            try {
+                status = OrderStatus.valueOf(statusText.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status " + statusText);
+            }
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("status or completed_time is required");
+        }
+        if (!IMPORTABLE.contains(status)) {
+            throw new IllegalArgumentException("Only COMPLETED and CANCELLED orders can be imported, not " + status
+                    + "; place live orders through /api/orders");
+        }
+        if (status == OrderStatus.COMPLETED && completedTime == null) {
+            throw new IllegalArgumentException("COMPLETED orders need completed_time");
+        }
+        if (status == OrderStatus.CANCELLED && completedTime != null) {
+            throw new IllegalArgumentException("CANCELLED orders have no completed_time");
+        }
+        if (completedTime != null && completedTime.isBefore(orderTime)) {
+            throw new IllegalArgumentException("completed_time is before order_time");
+        }
+
+        Barista barista = null;
+        Long baristaId = parseLong(fields, "barista_id");
+        if (baristaId != null) {
+            barista = baristas.get(baristaId);
+            if (barista == null) {
+                throw new IllegalArgumentException("Unknown barista_id " + baristaId);
+            }
+        }
+
+        String customerName = fields.getOrDefault("customer_name", DEFAULT_CUSTOMER);
+        if (customerName == null || customerName.isBlank()) {
+            customerName = DEFAULT_CUSTOMER;
+        }
+        if (customerName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("customer_name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+
+        Long timesSkipped = parseLong(fields, "times_skipped");
+        if (timesSkipped != null && (timesSkipped < 0 || timesSkipped > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("times_skipped must be a non-negative integer");
+        }
+        LocalDateTime hardDeadline = parseTime(fields, "hard_deadline");
+
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setDrink(drink);
+        order.setAssignedBarista(barista);
+        order.setStatus(status);
+        order.setOrderTime(orderTime);
+        order.setCompletedTime(completedTime);
+        order.setTimesSkipped(timesSkipped != null ? timesSkipped.intValue() : 0);
+        order.setLoyal(parseBoolean(fields, "loyal"));
+        order.setHardDeadline(hardDeadline != null ? hardDeadline : orderTime.plusMinutes(10));
+        return order;
+    }
+
+    private static Long parseLong(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // ISO date-time, with either 'T' or a space between date and time
+    private static LocalDateTime parseTime(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isEmpty() || value.equalsIgnoreCase("false") || value.equals("0")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true") || value.equals("1")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Invalid " + name + ": " + value);
+    }
+
+    /**
+     * Pulls one row at a time as column name to raw value (null for empty
+     * JSON nulls). A malformed row throws IllegalArgumentException after it
+     * has been skipped, so reading can go on.
+     */
+    private interface RowReader {
+        Map<String, String> next() throws IOException;
+
+        long rowNumber();
+    }
+
+    /**
+     * RFC 4180 CSV over a reusable char buffer: quoted fields may hold commas,
+     * doubled quotes and line breaks. Blank lines are skipped.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final Reader reader;
+        private final char[] buffer = new char[1 << 16];
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> record = new ArrayList<>();
+        private int position = 0;
+        private int limit = 0;
+        private List<String> header;
+        private long row = 0;
+
+        CsvRowReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                if (!readRecord()) {
+                    return null;
+                }
+                header = record.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+            }
+            if (!readRecord()) {
+                return null;
+            }
+            row++;
+            if (record.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + record.size());
+            }
+            Map<String, String> fields = new HashMap<>(header.size() * 2);
+            for (int i = 0; i < header.size(); i++) {
+                fields.put(header.get(i), record.get(i));
+            }
+            return fields;
+        }
+
+        @Override
+        public long rowNumber() {
+            return row;
+        }
+
+        private boolean readRecord() throws IOException {
+            record.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean any = false;
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    if (quoted) {
+                        row++;
+                        throw new IllegalArgumentException("Unterminated quoted field at end of input");
+                    }
+                    if (any) {
+                        record.add(field.toString());
+                        return true;
+                    }
+                    return false;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                    any = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                    any = true;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    if (any || field.length() > 0) {
+                        record.add(field.toString());
+                        return true;
+                    }
+                } else {
+                    field.append((char) c);
+                    any = true;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One flat JSON object per line, read with the streaming parser so no
+     * tree is built. A bad line only costs that line.
+     */
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long row = 0;
+
+        NdjsonRowReader(Reader reader) {
+            this.reader = new BufferedReader(reader, 1 << 16);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            row++;
+
+            Map<String, String> fields = new HashMap<>();
+            try (JsonParser parser = jsonFactory.createParser(ObjectReadContext.empty(), line)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a JSON object");
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) == JsonToken.PROPERTY_NAME) {
+                    String name = parser.currentName().toLowerCase(Locale.ROOT);
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException("Nested value for " + name + " is not supported");
+                    }
+                    fields.put(name, value == JsonToken.VALUE_NULL ? null : parser.getString());
+                }
+                if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                    throw new IllegalArgumentException("Expected exactly one JSON object per line");
+                }
+            } catch (JacksonException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            return fields;
+        }
+
+        @Override
+        public long rowNumber() {
+            return row;
+        }
+    }
+
+    private static final class Report {
+        private final String format;
+        private final List<ImportReportDTO.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+        private boolean errorsTruncated;
+        private String failure;
+
+        Report(String format) {
+            this.format = format;
+        }
+
+        void reject(long row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReportDTO.RowError(row, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        ImportReportDTO build(long started) {
+            return ImportReportDTO.builder()
+                    .format(format)
+                    .rowsRead(rowsRead)
+                    .imported(imported)
+                    .duplicates(duplicates)
+                    .rejected(rejected)
+                    .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                    .errors(errors)
+                    .errorsTruncated(errorsTruncated)
+                    .failure(failure)
+                    .build();
+        }
+    }
+}
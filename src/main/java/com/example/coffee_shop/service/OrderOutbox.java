@@ -0,0 +1,36 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderEventType;
+import com.example.coffee_shop.model.OutboxEvent;
+import com.example.coffee_shop.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Write side of the transactional outbox. Must be called inside the
+ * transaction that changes the order, so the event commits or rolls back
+ * with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void record(Order order, OrderEventType type) {
+        if (type == OrderEventType.RESCORED) {
+            return; // Every waiting order, every tick: too chatty for the outbox, the journal has them
+        }
+        OutboxEvent event = new OutboxEvent();
+        event.setOrderId(order.getId());
+        event.setEventType(type);
+        event.setOrderStatus(order.getStatus());
+        event.setBaristaId(order.getAssignedBarista() != null ? order.getAssignedBarista().getId() : null);
+        event.setPriorityScore(order.getPriorityScore());
+        event.setCreatedTime(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
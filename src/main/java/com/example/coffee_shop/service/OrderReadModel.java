@@ -0,0 +1,96 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read side for order lookups: an immutable snapshot of every order still in
+ * coffee_orders, keyed by id. The write paths publish a fresh snapshot once
+ * their transaction commits; the archiver evicts what it moves to history.
+ *
+ * Stored snapshots are never handed out: every lookup gets its own copy, so
+ * callers may modify what they get without touching the cache.
+ */
+@Component
+public class OrderReadModel {
+
+    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+
+    /**
+     * Publish the order's current state after the surrounding transaction
+     * commits.
+     */
+    public void update(Order order) {
+        if (order.getId() == null) {
+            return;
+        }
+        Order snapshot = snapshot(order);
+        AfterCommit.run(() -> orders.put(snapshot.getId(), snapshot));
+    }
+
+    /**
+     * Read-through fill after a miss. Never replaces an entry, so a stale
+     * database read can't overwrite a newer snapshot from the write path.
+     * Terminal orders are skipped: only they get archived, and a read that
+     * raced the archiver would otherwise bring back an evicted id for good.
+     */
+    public void fill(Order order) {
+        if (order.getId() != null && !isTerminal(order.getStatus())) {
+            orders.putIfAbsent(order.getId(), snapshot(order));
+        }
+    }
+
+    public Optional<Order> find(long orderId) {
+        return Optional.ofNullable(orders.get(orderId)).map(OrderReadModel::snapshot);
+    }
+
+    public void evict(Collection<Long> orderIds) {
+        AfterCommit.run(() -> orderIds.forEach(orders::remove));
+    }
+
+    public void clear() {
+        orders.clear();
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    private static boolean isTerminal(OrderStatus status) {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED;
+    }
+
+    private static Order snapshot(Order source) {
+        Order copy = new Order();
+        copy.setId(source.getId());
+        copy.setCustomerName(source.getCustomerName());
+        copy.setCustomerId(source.getCustomerId());
+        copy.setStatus(source.getStatus());
+        copy.setPriorityScore(source.getPriorityScore());
+        copy.setOrderTime(source.getOrderTime());
+        copy.setEstimatedCompletionTime(source.getEstimatedCompletionTime());
+        copy.setCompletedTime(source.getCompletedTime());
+        copy.setTimesSkipped(source.getTimesSkipped());
+        copy.setLoyal(source.isLoyal());
+        copy.setHardDeadline(source.getHardDeadline());
+        Drink drink = source.getDrink();
+        if (drink != null) {
+            copy.setDrink(new Drink(drink.getId(), drink.getName(), drink.getPrepTimeMinutes(), drink.getPrice(),
+                    drink.getDemandFrequency()));
+        }
+        Barista barista = source.getAssignedBarista();
+        if (barista != null) {
+            copy.setAssignedBarista(new Barista(barista.getId(), barista.getName(), barista.getStatus(),
+                    barista.getCurrentLoadMinutes()));
+        }
+        return copy;
+    }
+}
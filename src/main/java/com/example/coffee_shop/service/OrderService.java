@@ -1,50 +1,160 @@
 package com.example.coffee_shop.service;
 
+import com.example.coffee_shop.dto.OrderEtaDTO;
+import com.example.coffee_shop.model.Customer;
 import com.example.coffee_shop.model.Drink;
 import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderEventType;
 import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.model.OrderHistory;
 import com.example.coffee_shop.repository.DrinkRepository;
+import com.example.coffee_shop.repository.OrderHistoryRepository;
 import com.example.coffee_shop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    // Clock skew allowance around an order's own times when bounding a journal scan
+    private static final Duration JOURNAL_SLACK = Duration.ofMinutes(5);
+
     private final OrderRepository orderRepository;
     private final DrinkRepository drinkRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
     private final PriorityService priorityService;
+    private final LiveQueueState liveQueueState;
+    private final OrderReadModel orderReadModel;
+    private final OrderEventJournal orderEventJournal;
+    private final OrderOutbox orderOutbox;
+    private final ColumnarHistoryStore columnarHistoryStore;
+    private final TimeSlotRollupService timeSlotRollupService;
+    private final CustomerService customerService;
 
+    /**
+     * @param username account placing the order; loyalty comes from its order
+     *                 count, never from the request. Null means an anonymous,
+     *                 non-loyal order.
+     */
     @Transactional
-    public Order placeOrder(String customerName, Long drinkId, boolean isLoyal) {
+    public Order placeOrder(String customerName, Long drinkId, String username) {
         Drink drink = drinkRepository.findById(drinkId)
                 .orElseThrow(() -> new IllegalArgumentException("Drink not found with ID: " + drinkId));
 
         Order order = new Order();
         order.setCustomerName(customerName);
         order.setDrink(drink);
-        order.setLoyal(isLoyal);
         order.setStatus(OrderStatus.WAITING);
         order.setOrderTime(LocalDateTime.now());
+        if (username != null) {
+            Customer customer = customerService.recordOrder(username, order.getOrderTime());
+            order.setCustomerId(customer.getId());
+            order.setLoyal(customerService.isLoyal(customer));
+        }
         order.setHardDeadline(order.getOrderTime().plusMinutes(10));
 
         // Initial priority calculation (Wait time is 0, but complexity/loyalty matter)
         double initialPriority = priorityService.calculatePriority(order);
         order.setPriorityScore(initialPriority);
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        liveQueueState.track(saved);
+        orderReadModel.update(saved);
+        orderEventJournal.record(saved, OrderEventType.PLACED);
+        orderOutbox.record(saved, OrderEventType.PLACED);
+        timeSlotRollupService.recordArrival(saved);
+        if (liveQueueState.isReady()) {
+            saved.setPredictedReadyTime(liveQueueState
+                    .predictEta(initialPriority, drink.getPrepTimeMinutes(), saved.getOrderTime()).readyTime());
+        }
+        return saved;
+    }
+
+    /**
+     * Predicted ready time. Waiting and preparing orders are answered from
+     * {@link LiveQueueState} without touching the database.
+     */
+    public OrderEtaDTO getEta(Long orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<LiveQueueState.Eta> queued = liveQueueState.predictEta(orderId, now);
+        if (queued.isPresent()) {
+            return toEta(orderId, OrderStatus.WAITING, queued.get().readyTime(), queued.get().ordersAhead(), now);
+        }
+        Optional<LiveQueueState.PreparingOrder> preparing = liveQueueState.getPreparingOrder(orderId);
+        if (preparing.isPresent()) {
+            return toEta(orderId, OrderStatus.PREPARING, preparing.get().estimatedCompletionTime(), 0, now);
+        }
+
+        // Not in the live queue: ready, finished, or committed a moment ago
+        Order order = getOrder(orderId);
+        if (order.getStatus() == OrderStatus.WAITING || order.getStatus() == OrderStatus.PLACED) {
+            LiveQueueState.Eta eta = liveQueueState.predictEta(order.getPriorityScore(),
+                    order.getDrink().getPrepTimeMinutes(), now);
+            return toEta(orderId, order.getStatus(), eta.readyTime(), eta.ordersAhead(), now);
+        }
+        if (order.getStatus() == OrderStatus.PREPARING) {
+            return toEta(orderId, order.getStatus(), order.getEstimatedCompletionTime(), 0, now);
+        }
+        return toEta(orderId, order.getStatus(), null, 0, now);
+    }
+
+    private OrderEtaDTO toEta(Long orderId, OrderStatus status, LocalDateTime readyTime, long ahead,
+            LocalDateTime now) {
+        double remaining = readyTime == null ? 0.0
+                : Math.max(0, Duration.between(now, readyTime).toSeconds() / 60.0);
+        return OrderEtaDTO.builder()
+                .orderId(orderId)
+                .status(status.name())
+                .predictedReadyTime(readyTime)
+                .ordersAhead(ahead)
+                .minutesRemaining(remaining)
+                .build();
     }
 
+    /**
+     * Served from {@link OrderReadModel}; the database is only hit on a miss
+     * (cold start, or an archived order).
+     */
     public Order getOrder(Long orderId) {
-        return orderRepository.findById(orderId)
+        Optional<Order> cached = orderReadModel.find(orderId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Optional<Order> live = orderRepository.findById(orderId);
+        live.ifPresent(orderReadModel::fill);
+        return live
+                .or(() -> orderHistoryRepository.findById(orderId).map(OrderHistory::toOrder))
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + orderId));
     }
 
+    /**
+     * Journal events of an order, oldest first. The scan is bounded by the
+     * order's own lifetime: it starts a little before the order was placed and
+     * stops at its pickup, or shortly after a terminal order finished.
+     * Synthetic orders dated in the future are scanned from the start.
+     */
+    public List<OrderEventJournal.OrderEvent> getOrderEvents(Long orderId) {
+        Order order = getOrder(orderId);
+        LocalDateTime placed = order.getOrderTime();
+        LocalDateTime from = placed == null || placed.isAfter(LocalDateTime.now())
+                ? null
+                : placed.minus(JOURNAL_SLACK);
+        LocalDateTime to = null;
+        if (placed != null && (order.getStatus() == OrderStatus.COMPLETED
+                || order.getStatus() == OrderStatus.CANCELLED)) {
+            LocalDateTime finished = order.getCompletedTime() != null ? order.getCompletedTime() : placed;
+            to = finished.plus(JOURNAL_SLACK);
+        }
+        return orderEventJournal.getEvents(orderId, from, to);
+    }
+
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
@@ -53,13 +163,23 @@ public class OrderService {
         return orderRepository.findByStatus(status);
     }
 
+    @Transactional // The outbox row must commit with the status change
     public Order pickupOrder(Long orderId) {
-        Order order = getOrder(orderId);
+        // Archived orders are terminal, so only the live table matters here
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + orderId));
         if (order.getStatus() != OrderStatus.READY_TO_PICKUP) {
             throw new IllegalStateException("Order is not ready for pickup. Current status: " + order.getStatus());
         }
         order.setStatus(OrderStatus.COMPLETED);
         order.setCompletedTime(LocalDateTime.now());
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        liveQueueState.forget(saved.getId());
+        orderReadModel.update(saved);
+        orderEventJournal.record(saved, OrderEventType.PICKED_UP);
+        orderOutbox.record(saved, OrderEventType.PICKED_UP);
+        columnarHistoryStore.append(saved);
+        timeSlotRollupService.recordCompletion(saved);
+        return saved;
     }
 }
@@ -0,0 +1,93 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.OrderEventMessage;
+import com.example.coffee_shop.model.OutboxEvent;
+import com.example.coffee_shop.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains coffee_outbox in id order and fans each batch out to in-process
+ * {@code @EventListener(OrderEventMessage.class)} subscribers and to every
+ * {@link OutboxSink} bean. Rows are deleted only after all of them accepted
+ * the batch, so delivery is at-least-once: a failure means the whole batch is
+ * retried on the next poll.
+ *
+ * Assumes a single application instance draining the table.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            ApplicationEventPublisher eventPublisher,
+            List<OutboxSink> sinks,
+            PlatformTransactionManager transactionManager,
+            @Value("${coffee.outbox.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${coffee.outbox.poll-interval-ms:500}")
+    public void relay() {
+        int delivered;
+        do {
+            delivered = relayBatch();
+        } while (delivered == batchSize);
+    }
+
+    /**
+     * @return events delivered, 0 when the outbox is empty or delivery failed
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OrderEventMessage> messages = batch.stream().map(OutboxRelay::toMessage).toList();
+
+        // Deliver outside any transaction so a slow sink doesn't hold DB locks
+        try {
+            messages.forEach(eventPublisher::publishEvent);
+            for (OutboxSink sink : sinks) {
+                sink.deliver(messages);
+            }
+        } catch (Exception e) {
+            log.warn("Outbox delivery of {} events failed, will retry: {}", messages.size(), e.getMessage());
+            return 0;
+        }
+
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+        return batch.size();
+    }
+
+    private static OrderEventMessage toMessage(OutboxEvent event) {
+        return OrderEventMessage.builder()
+                .eventId(event.getId())
+                .orderId(event.getOrderId())
+                .eventType(event.getEventType().name())
+                .orderStatus(event.getOrderStatus() != null ? event.getOrderStatus().name() : null)
+                .baristaId(event.getBaristaId())
+                .priorityScore(event.getPriorityScore())
+                .occurredAt(event.getCreatedTime())
+                .build();
+    }
+}
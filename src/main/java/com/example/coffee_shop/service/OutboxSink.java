@@ -0,0 +1,15 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.OrderEventMessage;
+
+import java.util.List;
+
+/**
+ * Destination for relayed order events. Register an implementation as a bean
+ * to receive every batch. Throwing makes the relay retry the whole batch
+ * later, so a sink may see the same event more than once.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OrderEventMessage> batch) throws Exception;
+}
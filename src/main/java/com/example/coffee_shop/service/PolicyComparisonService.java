@@ -0,0 +1,213 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.PolicyComparisonDTO;
+import com.example.coffee_shop.dto.WorkloadSpec;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.repository.DrinkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates several scheduling policies against one shared arrival trace,
+ * in parallel and entirely in memory. Unlike
+ * {@link SimulationService#processSimulationOrders()} nothing is written to
+ * coffee_orders.
+ */
+@Service
+@Slf4j
+public class PolicyComparisonService {
+
+    public static final String SOURCE_GENERATED = "generated";
+    public static final String SOURCE_RECORDED = "recorded";
+    public static final String SOURCE_WORKLOAD = "workload";
+
+    private static final int BARISTAS = 3;
+    private static final LocalTime START_TIME = LocalTime.of(7, 0);
+    private static final double LOYAL_CUSTOMER_RATE = 0.30;
+
+    // Newest first; each branch is limited on its own, so neither table is read past the cap
+    private static final String RECENT_ORDERS = "SELECT order_time, drink_id, is_loyal FROM ("
+            + "(SELECT id, order_time, drink_id, is_loyal FROM coffee_order_history"
+            + " ORDER BY order_time DESC, id DESC LIMIT ?) UNION ALL "
+            + "(SELECT id, order_time, drink_id, is_loyal FROM coffee_orders"
+            + " ORDER BY order_time DESC, id DESC LIMIT ?)) recent ORDER BY order_time DESC, id DESC LIMIT ?";
+
+    private final DrinkRepository drinkRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final WorkloadGenerator workloadGenerator;
+    private final SimulationJobService simulationJobService;
+    private final int maxTraceSize;
+
+    public PolicyComparisonService(DrinkRepository drinkRepository,
+            JdbcTemplate jdbcTemplate,
+            SchedulingPolicyRegistry policyRegistry,
+            WorkloadGenerator workloadGenerator,
+            SimulationJobService simulationJobService,
+            @Qualifier("comparisonExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${coffee.simulation.comparison.max-orders:100000}") int maxTraceSize) {
+        this.drinkRepository = drinkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.policyRegistry = policyRegistry;
+        this.workloadGenerator = workloadGenerator;
+        this.simulationJobService = simulationJobService;
+        this.executor = executor;
+        this.maxTraceSize = maxTraceSize;
+    }
+
+    /**
+     * Validate the request on the calling thread, then run the comparison on
+     * the bounded simulation executor and wait for it. Throws
+     * {@link org.springframework.core.task.TaskRejectedException} when that
+     * executor is full.
+     */
+    public PolicyComparisonDTO compare(List<String> policyNames, String source, int orders, double lambda,
+            Long seed, WorkloadSpec workload) {
+        List<String> selected = policyNames == null || policyNames.isEmpty()
+                ? policyRegistry.getPolicyNames()
+                : policyNames;
+        selected.forEach(policyRegistry::get); // Fail fast on unknown names
+
+        if (SOURCE_WORKLOAD.equals(source)) {
+            WorkloadGenerator.Workload prepared = workloadGenerator.prepare(
+                    workload != null ? workload : new WorkloadSpec());
+            return simulationJobService.runBounded(() -> compareWorkload(selected, prepared));
+        }
+        if (SOURCE_RECORDED.equals(source)) {
+            return simulationJobService.runBounded(() -> compareTrace(selected, recordedTrace(), null));
+        }
+        if (source != null && !SOURCE_GENERATED.equals(source)) {
+            throw new IllegalArgumentException("Unknown trace source: " + source);
+        }
+        if (orders <= 0 || orders > maxTraceSize) {
+            throw new IllegalArgumentException("orders must be between 1 and " + maxTraceSize);
+        }
+        if (!(lambda > 0)) {
+            throw new IllegalArgumentException("lambda must be positive");
+        }
+        long usedSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        return simulationJobService.runBounded(
+                () -> compareTrace(selected, generateTrace(orders, lambda, usedSeed), usedSeed));
+    }
+
+    private PolicyComparisonDTO compareTrace(List<String> selected, List<SimulatedArrival> trace, Long seed) {
+        long started = System.nanoTime();
+
+        // One task per policy; the trace is shared read-only
+        List<CompletableFuture<PolicyComparisonDTO.PolicyReport>> runs = new ArrayList<>();
+        for (String name : selected) {
+            runs.add(CompletableFuture.supplyAsync(() -> runPolicy(name, trace), executor));
+        }
+        List<PolicyComparisonDTO.PolicyReport> reports = runs.stream().map(CompletableFuture::join).toList();
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        log.info("Compared {} policies over {} orders in {} ms", reports.size(), trace.size(), elapsed);
+
+        return PolicyComparisonDTO.builder()
+                .traceSource(seed != null ? SOURCE_GENERATED : SOURCE_RECORDED)
+                .traceSize(trace.size())
+                .seed(seed)
+                .elapsedMillis(elapsed)
+                .reports(reports)
+                .build();
+    }
+
+    /**
+     * Like a generated trace, but each policy pulls its own copy of the
+     * workload from the seed instead of sharing a list, so traces of
+     * millions of orders are never held in memory.
+     */
+    private PolicyComparisonDTO compareWorkload(List<String> selected, WorkloadGenerator.Workload workload) {
+        long started = System.nanoTime();
+        log.info("Comparing {} policies over a workload of ~{} orders", selected.size(),
+                Math.round(workload.expectedOrders()));
+
+        List<CompletableFuture<PolicyComparisonDTO.PolicyReport>> runs = new ArrayList<>();
+        for (String name : selected) {
+            runs.add(CompletableFuture.supplyAsync(() -> runPolicy(name, workload), executor));
+        }
+        List<PolicyComparisonDTO.PolicyReport> reports = runs.stream().map(CompletableFuture::join).toList();
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        int size = reports.get(0).getStats().getTotalOrders();
+        log.info("Compared {} policies over {} orders in {} ms", reports.size(), size, elapsed);
+
+        return PolicyComparisonDTO.builder()
+                .traceSource(SOURCE_WORKLOAD)
+                .traceSize(size)
+                .seed(workload.getSeed())
+                .elapsedMillis(elapsed)
+                .reports(reports)
+                .build();
+    }
+
+    private PolicyComparisonDTO.PolicyReport runPolicy(String name, Iterable<SimulatedArrival> trace) {
+        long started = System.nanoTime();
+        SimulationStatsAccumulator stats = new SimulationStatsAccumulator(name);
+        new QueueSimulator(BARISTAS, policyRegistry.get(name)).run(trace.iterator(), stats, SimulationProgress.NONE);
+        return PolicyComparisonDTO.PolicyReport.builder()
+                .policy(name)
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .stats(stats.toStats())
+                .build();
+    }
+
+    /**
+     * Poisson arrivals from 07:00 today, drinks drawn by demand frequency.
+     */
+    private List<SimulatedArrival> generateTrace(int orders, double lambda, long seed) {
+        DrinkSampler drinkSampler = new DrinkSampler(drinkRepository.findAll());
+
+        // Same stream layout as SimulationService: arrivals, drinks, loyalty
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom arrivalRandom = root.split();
+        SplittableRandom drinkRandom = root.split();
+        SplittableRandom loyaltyRandom = root.split();
+
+        List<SimulatedArrival> trace = new ArrayList<>(orders);
+        LocalDateTime time = LocalDateTime.of(LocalDate.now(), START_TIME);
+        for (int i = 0; i < orders; i++) {
+            double interArrival = -Math.log(1.0 - arrivalRandom.nextDouble()) / lambda;
+            time = time.plusSeconds((long) (interArrival * 60));
+            trace.add(new SimulatedArrival(time, drinkSampler.sample(drinkRandom),
+                    loyaltyRandom.nextDouble() < LOYAL_CUSTOMER_RATE));
+        }
+        return trace;
+    }
+
+    /**
+     * The most recent orders, live and archived, replayed in arrival order;
+     * at most coffee.simulation.comparison.max-orders of them, like a
+     * generated trace. Only the three columns a replay needs are read.
+     */
+    private List<SimulatedArrival> recordedTrace() {
+        Map<Long, Drink> drinks = drinkRepository.findAll().stream()
+                .collect(Collectors.toMap(Drink::getId, Function.identity()));
+        List<SimulatedArrival> trace = new ArrayList<>();
+        jdbcTemplate.query(RECENT_ORDERS, rs -> {
+            Drink drink = drinks.get(rs.getLong(2));
+            if (drink != null) {
+                trace.add(new SimulatedArrival(rs.getObject(1, LocalDateTime.class), drink, rs.getBoolean(3)));
+            }
+        }, maxTraceSize, maxTraceSize, maxTraceSize);
+        Collections.reverse(trace);
+        return trace;
+    }
+}
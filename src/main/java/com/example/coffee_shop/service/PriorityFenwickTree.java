@@ -0,0 +1,64 @@
+package com.example.coffee_shop.service;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree over priority-score buckets, highest score in
+ * bucket 0, holding the number of waiting orders and their total prep minutes
+ * per bucket. "How much work is queued ahead of score s" is a prefix sum, so
+ * both updates and queries are O(log n) however long the queue gets.
+ *
+ * Not thread-safe; {@link LiveQueueState} guards it.
+ */
+class PriorityFenwickTree {
+
+    static final double MAX_SCORE = 256.0;
+    static final double BUCKET_WIDTH = 0.25;
+    static final int BUCKETS = (int) (MAX_SCORE / BUCKET_WIDTH);
+
+    private final long[] prepMinutes = new long[BUCKETS + 1]; // 1-based
+    private final long[] counts = new long[BUCKETS + 1];
+
+    /**
+     * Bucket for a score; scores outside [0, MAX_SCORE) share the end buckets.
+     */
+    static int bucketOf(double score) {
+        int bucket = (int) ((MAX_SCORE - score) / BUCKET_WIDTH);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    void add(int bucket, int prep, int count) {
+        for (int i = bucket + 1; i <= BUCKETS; i += i & -i) {
+            prepMinutes[i] += prep;
+            counts[i] += count;
+        }
+    }
+
+    /**
+     * Total prep minutes in buckets 0..bucket inclusive.
+     */
+    long prepMinutesThrough(int bucket) {
+        long sum = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            sum += prepMinutes[i];
+        }
+        return sum;
+    }
+
+    long countThrough(int bucket) {
+        long sum = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+
+    long totalPrepMinutes() {
+        return prepMinutesThrough(BUCKETS - 1);
+    }
+
+    void clear() {
+        Arrays.fill(prepMinutes, 0);
+        Arrays.fill(counts, 0);
+    }
+}
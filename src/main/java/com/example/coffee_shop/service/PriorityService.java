@@ -9,18 +9,57 @@ import java.time.LocalDateTime;
 @Service
 public class PriorityService {
 
-    // Weights
-    private static final double WEIGHT_WAIT_TIME = 0.40;
-    private static final double WEIGHT_COMPLEXITY = 0.25;
-    private static final double WEIGHT_URGENCY = 0.25;
-    private static final double WEIGHT_LOYALTY = 0.10;
+    public static final Settings DEFAULT_SETTINGS = new Settings(0.40, 0.25, 0.25, 0.10, 5.0, 7.5, 9.0);
+
+    // Swapped as a whole so a scoring pass never sees half-updated weights
+    private volatile Settings settings = DEFAULT_SETTINGS;
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Replace weights and congestion thresholds at runtime. Takes effect from
+     * the next scoring call.
+     */
+    public Settings updateSettings(Settings updated) {
+        // NaN slips through every comparison below, and infinities turn scores into NaN
+        for (double value : new double[] { updated.waitTimeWeight(), updated.complexityWeight(),
+                updated.urgencyWeight(), updated.loyaltyWeight(), updated.moderateAvgWait(),
+                updated.congestedAvgWait(), updated.criticalAvgWait() }) {
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException("Weights and thresholds must be finite numbers");
+            }
+        }
+        if (updated.waitTimeWeight() < 0 || updated.complexityWeight() < 0
+                || updated.urgencyWeight() < 0 || updated.loyaltyWeight() < 0) {
+            throw new IllegalArgumentException("Weights must not be negative");
+        }
+        if (updated.waitTimeWeight() + updated.complexityWeight() + updated.urgencyWeight()
+                + updated.loyaltyWeight() <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        if (!(updated.moderateAvgWait() <= updated.congestedAvgWait()
+                && updated.congestedAvgWait() <= updated.criticalAvgWait())) {
+            throw new IllegalArgumentException("Thresholds must satisfy moderate <= congested <= critical");
+        }
+        settings = updated;
+        return updated;
+    }
 
     /**
      * Calculates the priority score for an order.
      * Higher score = Higher priority.
      */
     public double calculatePriority(Order order) {
-        LocalDateTime now = LocalDateTime.now();
+        return calculatePriority(order, LocalDateTime.now());
+    }
+
+    /**
+     * Same as {@link #calculatePriority(Order)} but against an explicit clock,
+     * so the simulator can score orders at simulated time.
+     */
+    public double calculatePriority(Order order, LocalDateTime now) {
 
         // 1. Waiting Time Factor
         // Normalize: Let's say 10 minutes wait is max "normal" wait -> score 1.0
@@ -78,10 +117,11 @@ public class PriorityService {
         double loyaltyScoreRaw = order.isLoyal() ? 100.0 : 0.0;
 
         // Final Weighted Sum
-        double finalScore = (waitScoreRaw * WEIGHT_WAIT_TIME) +
-                (complexityScoreRaw * WEIGHT_COMPLEXITY) +
-                (urgencyScoreRaw * WEIGHT_URGENCY) +
-                (loyaltyScoreRaw * WEIGHT_LOYALTY);
+        Settings w = settings;
+        double finalScore = (waitScoreRaw * w.waitTimeWeight()) +
+                (complexityScoreRaw * w.complexityWeight()) +
+                (urgencyScoreRaw * w.urgencyWeight()) +
+                (loyaltyScoreRaw * w.loyaltyWeight());
 
         return finalScore;
     }
@@ -91,13 +131,18 @@ public class PriorityService {
      * congestion
      */
     public double calculatePriorityWithThroughput(Order order, double currentAvgWait) {
-        double basePriority = calculatePriority(order);
+        return calculatePriorityWithThroughput(order, currentAvgWait, LocalDateTime.now());
+    }
+
+    public double calculatePriorityWithThroughput(Order order, double currentAvgWait, LocalDateTime now) {
+        double basePriority = calculatePriority(order, now);
 
         // Throughput bonus based on prep time and congestion level
         double throughputBonus = 0.0;
         int prepTime = order.getDrink().getPrepTimeMinutes();
 
-        if (currentAvgWait >= 7.5) {
+        Settings t = settings;
+        if (currentAvgWait >= t.congestedAvgWait()) {
             // CONGESTED: Aggressive throughput bias
             if (prepTime <= 2) {
                 throughputBonus = 20.0; // Major boost for fast drinks
@@ -106,7 +151,7 @@ public class PriorityService {
             } else { // 6+ min
                 throughputBonus = -15.0; // Penalize long drinks
             }
-        } else if (currentAvgWait >= 5.0) {
+        } else if (currentAvgWait >= t.moderateAvgWait()) {
             // MODERATE: Light throughput bias
             if (prepTime <= 2) {
                 throughputBonus = 10.0;
@@ -122,4 +167,12 @@ public class PriorityService {
 
         return basePriority + throughputBonus;
     }
+
+    /**
+     * Score weights plus the average-wait thresholds (minutes) at which the
+     * throughput bonus and the adaptive policy change mode.
+     */
+    public record Settings(double waitTimeWeight, double complexityWeight, double urgencyWeight,
+            double loyaltyWeight, double moderateAvgWait, double congestedAvgWait, double criticalAvgWait) {
+    }
 }
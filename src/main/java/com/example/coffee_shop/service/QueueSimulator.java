@@ -0,0 +1,128 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fully in-memory replay of an arrival trace against a fixed number of
+ * baristas, using the same dispatch rules as
+ * {@link SimulationService#processSimulationOrders()}: the earliest free
+ * barista takes the best order that has arrived by then, or the next arrival
+ * if nothing is waiting.
+ *
+ * Waiting orders are kept in one FIFO per (drink, loyalty) class. The
+ * {@link SchedulingPolicy} contract never ranks an order below a younger one
+ * of the same drink and loyalty, so only the head of each class can
+ * win and a decision looks at a dozen candidates instead of the whole queue.
+ */
+public class QueueSimulator {
+
+    private static final int PROGRESS_EVERY = 1000;
+
+    private final int baristaCount;
+    private final SchedulingPolicy policy;
+
+    public QueueSimulator(int baristaCount, SchedulingPolicy policy) {
+        this.baristaCount = baristaCount;
+        this.policy = policy;
+    }
+
+    /**
+     * Replay {@code arrivals}, which must be sorted by order time. The trace is
+     * consumed lazily, so only the waiting queue is ever held in memory.
+     */
+    public void run(Iterator<SimulatedArrival> arrivals, SimulationStatsAccumulator stats,
+            SimulationProgress progress) {
+        Map<Long, ArrayDeque<Order>> classes = new LinkedHashMap<>();
+        List<Order> candidates = new ArrayList<>();
+        LocalDateTime[] baristaFreeTime = new LocalDateTime[baristaCount];
+        SimulatedArrival next = arrivals.hasNext() ? arrivals.next() : null;
+        if (next == null) {
+            return;
+        }
+        for (int i = 0; i < baristaCount; i++) {
+            baristaFreeTime[i] = next.orderTime();
+        }
+
+        long nextId = 1;
+        int queued = 0;
+        int processed = 0;
+        long waitSum = 0;
+        double runningAvgWait = 0.0;
+
+        while (next != null || queued > 0) {
+            int barista = 0;
+            for (int i = 1; i < baristaCount; i++) {
+                if (baristaFreeTime[i].isBefore(baristaFreeTime[barista])) {
+                    barista = i;
+                }
+            }
+            LocalDateTime now = baristaFreeTime[barista];
+
+            // Admit everything that has arrived by now; if nothing is waiting, jump to the next arrival
+            while (next != null && (!next.orderTime().isAfter(now) || queued == 0)) {
+                Order order = toOrder(nextId++, next);
+                classes.computeIfAbsent(classKey(order), k -> new ArrayDeque<>()).addLast(order);
+                queued++;
+                next = arrivals.hasNext() ? arrivals.next() : null;
+                if (queued == 1 && order.getOrderTime().isAfter(now)) {
+                    break; // Only the single next arrival, as the DB-backed simulation does
+                }
+            }
+
+            candidates.clear();
+            for (ArrayDeque<Order> queue : classes.values()) {
+                if (!queue.isEmpty()) {
+                    candidates.add(queue.peekFirst());
+                }
+            }
+            Order selected = policy.select(candidates, now, runningAvgWait);
+            classes.get(classKey(selected)).pollFirst();
+            queued--;
+
+            LocalDateTime start = selected.getOrderTime().isAfter(now) ? selected.getOrderTime() : now;
+            LocalDateTime completion = start.plusMinutes(selected.getDrink().getPrepTimeMinutes());
+            long wait = Duration.between(selected.getOrderTime(), completion).toMinutes();
+
+            baristaFreeTime[barista] = completion;
+            stats.record(selected.getOrderTime(), completion, selected.getDrink(), barista, selected.isLoyal());
+
+            processed++;
+            waitSum += wait;
+            runningAvgWait = (double) waitSum / processed;
+
+            if (processed % PROGRESS_EVERY == 0) {
+                progress.ordersProcessed(processed, processed + queued, runningAvgWait);
+                if (progress.isCancelled()) {
+                    return;
+                }
+            }
+        }
+        progress.ordersProcessed(processed, processed, runningAvgWait);
+    }
+
+    private static long classKey(Order order) {
+        return order.getDrink().getId() * 2 + (order.isLoyal() ? 1 : 0);
+    }
+
+    private static Order toOrder(long id, SimulatedArrival arrival) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerName("Customer_" + id);
+        order.setDrink(arrival.drink());
+        order.setLoyal(arrival.loyal());
+        order.setStatus(OrderStatus.WAITING);
+        order.setOrderTime(arrival.orderTime());
+        order.setHardDeadline(arrival.orderTime().plusMinutes(10));
+        return order;
+    }
+}
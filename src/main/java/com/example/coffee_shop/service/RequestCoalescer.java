@@ -0,0 +1,98 @@
+package com.example.coffee_shop.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for expensive reads: concurrent calls with the same key share
+ * one computation, and a finished result is reused for
+ * {@code coffee.coalescing.stale-ms}. Failures are never cached.
+ *
+ * Counted in {@code coffee.coalescing.calls}, tagged by key and outcome
+ * (computed, joined an in-flight call, or served from the staleness window).
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long staleNanos;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+            @Value("${coffee.coalescing.stale-ms:1000}") long staleMs) {
+        if (staleMs < 0) {
+            throw new IllegalArgumentException("coffee.coalescing.stale-ms must not be negative");
+        }
+        this.meterRegistry = meterRegistry;
+        this.staleNanos = TimeUnit.MILLISECONDS.toNanos(staleMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        while (true) {
+            Flight current = flights.get(key);
+            if (current != null && !current.result.isDone()) {
+                count(key, "joined");
+                return (T) await(current);
+            }
+            if (current != null && System.nanoTime() - current.completedAt < staleNanos) {
+                count(key, "cached");
+                return (T) await(current);
+            }
+            Flight next = new Flight();
+            boolean won = current == null ? flights.putIfAbsent(key, next) == null : flights.replace(key, current, next);
+            if (won) {
+                count(key, "computed");
+                return run(key, next, loader);
+            }
+            // Lost the race to another caller; go round and join theirs
+        }
+    }
+
+    private <T> T run(String key, Flight flight, Supplier<T> loader) {
+        try {
+            T value = loader.get();
+            flight.completedAt = System.nanoTime();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void count(String key, String outcome) {
+        counters.computeIfAbsent(key + '|' + outcome, k -> Counter.builder("coffee.coalescing.calls")
+                .tag("key", key)
+                .tag("outcome", outcome)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long completedAt; // Written before result completes
+    }
+}
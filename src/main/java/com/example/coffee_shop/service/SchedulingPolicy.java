@@ -0,0 +1,60 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Decides which waiting order a free barista takes next. Shared by the live
+ * {@link BaristaScheduler}, the simulator and the policy comparison; register
+ * an implementation as a bean and it becomes selectable by {@link #getName()}.
+ *
+ * Implementations must be stateless and thread-safe, and must never rank an
+ * order below a younger order of the same drink and loyalty (the in-memory
+ * simulator relies on that to only look at class heads).
+ */
+public interface SchedulingPolicy {
+
+    String getName();
+
+    /**
+     * @param candidates     non-empty list of orders that have arrived by {@code now}
+     * @param now            wall clock for the live queue, simulated time otherwise
+     * @param runningAvgWait average wait in minutes, used as the congestion signal
+     */
+    Order select(List<Order> candidates, LocalDateTime now, double runningAvgWait);
+
+    @FunctionalInterface
+    interface Scorer {
+        double score(Order order, LocalDateTime now, double runningAvgWait);
+    }
+
+    /**
+     * Policy that takes the highest-scoring candidate. Ties go to the older
+     * order, so the result never depends on candidate order.
+     */
+    static SchedulingPolicy scored(String name, Scorer scorer) {
+        return new SchedulingPolicy() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Order select(List<Order> candidates, LocalDateTime now, double runningAvgWait) {
+                Order best = null;
+                double bestScore = 0;
+                for (Order candidate : candidates) {
+                    double s = scorer.score(candidate, now, runningAvgWait);
+                    if (best == null || s > bestScore
+                            || (s == bestScore && candidate.getOrderTime().isBefore(best.getOrderTime()))) {
+                        best = candidate;
+                        bestScore = s;
+                    }
+                }
+                return best;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All known {@link SchedulingPolicy} beans plus which one is active for the
+ * live queue and for the simulator. Switching is a single reference swap, so
+ * it applies from the next decision without a restart.
+ *
+ * Policies handed out here are wrapped to record every decision in the
+ * {@code coffee.scheduling.decision} timer, tagged by policy.
+ */
+@Service
+@Slf4j
+public class SchedulingPolicyRegistry {
+
+    public enum Scope {
+        LIVE, SIMULATION
+    }
+
+    private final Map<String, SchedulingPolicy> policies = new LinkedHashMap<>();
+    private final Map<Scope, SchedulingPolicy> active = new EnumMap<>(Scope.class);
+
+    public SchedulingPolicyRegistry(List<SchedulingPolicy> beans, MeterRegistry meterRegistry,
+            @Value("${coffee.scheduling.live-policy:PRIORITY}") String livePolicy,
+            @Value("${coffee.scheduling.simulation-policy:ADAPTIVE}") String simulationPolicy) {
+        for (SchedulingPolicy policy : beans) {
+            Timer timer = Timer.builder("coffee.scheduling.decision")
+                    .description("Time taken by a scheduling policy to pick the next order")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry);
+            if (policies.putIfAbsent(policy.getName(), new TimedPolicy(policy, timer)) != null) {
+                throw new IllegalStateException("Duplicate scheduling policy: " + policy.getName());
+            }
+        }
+        active.put(Scope.LIVE, get(livePolicy));
+        active.put(Scope.SIMULATION, get(simulationPolicy));
+    }
+
+    public List<String> getPolicyNames() {
+        return List.copyOf(policies.keySet());
+    }
+
+    public SchedulingPolicy get(String name) {
+        SchedulingPolicy policy = policies.get(name);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown policy: " + name + ". Available: " + getPolicyNames());
+        }
+        return policy;
+    }
+
+    public synchronized SchedulingPolicy getActive(Scope scope) {
+        return active.get(scope);
+    }
+
+    public synchronized void activate(Scope scope, String name) {
+        SchedulingPolicy policy = get(name);
+        SchedulingPolicy previous = active.put(scope, policy);
+        log.info("{} scheduling policy switched from {} to {}", scope, previous.getName(), name);
+    }
+
+    public synchronized Map<Scope, String> getActiveNames() {
+        Map<Scope, String> names = new EnumMap<>(Scope.class);
+        active.forEach((scope, policy) -> names.put(scope, policy.getName()));
+        return names;
+    }
+
+    private record TimedPolicy(SchedulingPolicy delegate, Timer timer) implements SchedulingPolicy {
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Order select(List<Order> candidates, LocalDateTime now, double runningAvgWait) {
+            long start = System.nanoTime();
+            try {
+                return delegate.select(candidates, now, runningAvgWait);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
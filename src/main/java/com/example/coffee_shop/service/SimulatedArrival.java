@@ -0,0 +1,11 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Drink;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of an arrival trace fed to {@link QueueSimulator}.
+ */
+public record SimulatedArrival(LocalDateTime orderTime, Drink drink, boolean loyal) {
+}
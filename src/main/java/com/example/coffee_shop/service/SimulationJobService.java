@@ -0,0 +1,291 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.SimulationJobDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs simulations as background jobs on the bounded simulation executor,
+ * tracks their progress and streams it to SSE subscribers.
+ */
+@Service
+@Slf4j
+public class SimulationJobService {
+
+    public static final String TYPE_RUN = "run";
+    public static final String TYPE_PROCESS = "process";
+
+    private static final int MAX_RETAINED_JOBS = 50;
+    private static final long PROGRESS_INTERVAL_NANOS = 200_000_000L; // Max 5 progress events/s per job
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final SimulationService simulationService;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Insertion-ordered; the oldest finished jobs are dropped once the cap is hit
+    private final Map<String, SimulationJob> jobs = new LinkedHashMap<>();
+
+    public SimulationJobService(SimulationService simulationService,
+            @Qualifier("simulationExecutor") ThreadPoolTaskExecutor executor) {
+        this.simulationService = simulationService;
+        this.executor = executor;
+    }
+
+    /**
+     * Queue a job. Throws {@link org.springframework.core.task.TaskRejectedException}
+     * when the executor and its queue are full. The seed only applies to
+     * {@link #TYPE_RUN} jobs; see {@link SimulationService#runSimulation(Long)}.
+     */
+    public SimulationJobDTO submit(String type, Long seed) {
+        if (!TYPE_RUN.equals(type) && !TYPE_PROCESS.equals(type)) {
+            throw new IllegalArgumentException("Unknown simulation job type: " + type);
+        }
+        SimulationJob job = new SimulationJob(UUID.randomUUID().toString(), type, seed);
+        job.future = executor.submit(() -> execute(job));
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            evictFinishedJobs();
+        }
+        log.info("Simulation job {} ({}) queued", job.id, type);
+        return job.toDto();
+    }
+
+    /**
+     * Run other heavy simulation work (policy comparisons, workload streams) on
+     * the same bounded executor and wait for it, so it queues behind jobs and
+     * counts against the same limit. Throws
+     * {@link org.springframework.core.task.TaskRejectedException} when full.
+     */
+    public <T> T runBounded(Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for simulation work", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public Optional<SimulationJobDTO> getJob(String id) {
+        return find(id).map(SimulationJob::toDto);
+    }
+
+    public List<SimulationJobDTO> getJobs() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(SimulationJob::toDto).toList();
+        }
+    }
+
+    /**
+     * Cancel a job. A queued job never starts; a running one stops at its next
+     * progress checkpoint and keeps what it has done so far.
+     */
+    public Optional<SimulationJobDTO> cancel(String id) {
+        return find(id).map(job -> {
+            job.cancelled = true;
+            // A running job is finished by execute() with its partial result
+            if (job.cancelIfQueued() && job.future != null) {
+                job.future.cancel(false); // Frees its queue slot
+            }
+            return job.toDto();
+        });
+    }
+
+    public Optional<SseEmitter> subscribe(String id) {
+        return find(id).map(job -> {
+            SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+            job.emitters.add(emitter);
+            emitter.onCompletion(() -> job.emitters.remove(emitter));
+            emitter.onTimeout(() -> job.emitters.remove(emitter));
+            emitter.onError(e -> job.emitters.remove(emitter));
+
+            // Late subscribers get the current state straight away
+            job.send(emitter, job.isFinished() ? "done" : "progress");
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+            return emitter;
+        });
+    }
+
+    private Optional<SimulationJob> find(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    private void evictFinishedJobs() {
+        var it = jobs.values().iterator();
+        while (jobs.size() > MAX_RETAINED_JOBS && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void execute(SimulationJob job) {
+        if (!job.start()) {
+            return; // Cancelled while queued
+        }
+        job.broadcast("progress");
+        try {
+            String result = TYPE_RUN.equals(job.type)
+                    ? simulationService.runSimulation(job.seed, job)
+                    : simulationService.processSimulationOrders(job);
+            job.finish(job.cancelled ? "CANCELLED" : "COMPLETED", result, null);
+        } catch (RuntimeException e) {
+            log.error("Simulation job {} failed", job.id, e);
+            job.finish("FAILED", null, e.getMessage());
+        }
+    }
+
+    /**
+     * Job state plus the progress hook handed to {@link SimulationService}.
+     */
+    private static final class SimulationJob implements SimulationProgress {
+        private final String id;
+        private final String type;
+        private final Long seed;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile String status = "QUEUED";
+        private volatile int ordersGenerated;
+        private volatile int ordersProcessed;
+        private volatile int totalOrders;
+        private volatile double runningAvgWait;
+        private volatile String result;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+        private long lastEmitNanos;
+
+        private SimulationJob(String id, String type, Long seed) {
+            this.id = id;
+            this.type = type;
+            this.seed = seed;
+        }
+
+        @Override
+        public void ordersGenerated(int generated, int total) {
+            ordersGenerated = generated;
+            totalOrders = total;
+            maybeBroadcast();
+        }
+
+        @Override
+        public void ordersProcessed(int processed, int total, double avgWait) {
+            ordersProcessed = processed;
+            totalOrders = total;
+            runningAvgWait = avgWait;
+            maybeBroadcast();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        // QUEUED -> RUNNING and QUEUED -> CANCELLED are decided under the job lock,
+        // so a job is either cancelled before it starts or runs to its own finish
+        synchronized boolean start() {
+            if (!"QUEUED".equals(status)) {
+                return false;
+            }
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        synchronized boolean cancelIfQueued() {
+            if (!"QUEUED".equals(status)) {
+                return false;
+            }
+            finish("CANCELLED", "Cancelled before start", null);
+            return true;
+        }
+
+        synchronized void finish(String finalStatus, String finalResult, String finalError) {
+            if (isFinished()) {
+                return;
+            }
+            status = finalStatus;
+            result = finalResult;
+            error = finalError;
+            finishedAt = LocalDateTime.now();
+            broadcast("done");
+            emitters.forEach(SseEmitter::complete);
+        }
+
+        private void maybeBroadcast() {
+            long now = System.nanoTime();
+            if (now - lastEmitNanos >= PROGRESS_INTERVAL_NANOS) {
+                lastEmitNanos = now;
+                broadcast("progress");
+            }
+        }
+
+        void broadcast(String event) {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, event);
+            }
+        }
+
+        void send(SseEmitter emitter, String event) {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(toDto()));
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter); // Client went away
+            }
+        }
+
+        SimulationJobDTO toDto() {
+            return SimulationJobDTO.builder()
+                    .id(id)
+                    .type(type)
+                    .status(status)
+                    .ordersGenerated(ordersGenerated)
+                    .ordersProcessed(ordersProcessed)
+                    .totalOrders(totalOrders)
+                    .runningAvgWait(runningAvgWait)
+                    .result(result)
+                    .error(error)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
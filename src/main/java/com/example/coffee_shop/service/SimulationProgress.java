@@ -0,0 +1,20 @@
+package com.example.coffee_shop.service;
+
+/**
+ * Progress callback and cancellation check for long simulation runs.
+ */
+public interface SimulationProgress {
+
+    SimulationProgress NONE = new SimulationProgress() {
+    };
+
+    default void ordersGenerated(int generated, int total) {
+    }
+
+    default void ordersProcessed(int processed, int total, double runningAvgWait) {
+    }
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.coffee_shop.model.Drink;
 import com.example.coffee_shop.model.Order;
 import com.example.coffee_shop.model.OrderStatus;
 import com.example.coffee_shop.repository.DrinkRepository;
+import com.example.coffee_shop.repository.OrderHistoryRepository;
 import com.example.coffee_shop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,17 +24,13 @@ public class SimulationService {
 
     private final DrinkRepository drinkRepository;
     private final OrderRepository orderRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
     private final PriorityService priorityService;
-    private final Random random = new Random();
-
-    // Drink frequency distribution
-    private static final Map<String, Double> DRINK_FREQUENCIES = Map.of(
-            "Cold Brew", 0.25,
-            "Espresso", 0.20,
-            "Americano", 0.15,
-            "Cappuccino", 0.20,
-            "Latte", 0.12,
-            "Mocha", 0.08);
+    private final LiveQueueState liveQueueState;
+    private final OrderReadModel orderReadModel;
+    private final TimeSlotRollupService timeSlotRollupService;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final RequestCoalescer requestCoalescer;
 
     // Simulation parameters
     private static final int TOTAL_ORDERS = 100; // Reduced to 100
@@ -42,32 +39,47 @@ public class SimulationService {
     private static final LocalTime END_TIME = LocalTime.of(10, 0);
     private static final double LOYAL_CUSTOMER_RATE = 0.30; // 30% loyal
 
-    public String runSimulation() {
-        log.info("Starting simulation with {} orders", TOTAL_ORDERS);
+    public String runSimulation(Long seed) {
+        return runSimulation(seed, SimulationProgress.NONE);
+    }
+
+    /**
+     * @param seed same seed, same trace (arrival times, drinks and loyalty);
+     *             null picks a random one, which is logged and returned
+     */
+    public String runSimulation(Long seed, SimulationProgress progress) {
+        long usedSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        log.info("Starting simulation with {} orders (seed {})", TOTAL_ORDERS, usedSeed);
+
+        // One stream per concern, so a change to one doesn't shift the others
+        SplittableRandom root = new SplittableRandom(usedSeed);
+        SplittableRandom arrivalRandom = root.split();
+        SplittableRandom drinkRandom = root.split();
+        SplittableRandom loyaltyRandom = root.split();
+
+        // Alias table over the menu's demand frequencies; fails before anything is wiped
+        DrinkSampler drinkSampler = new DrinkSampler(drinkRepository.findAll());
 
         // Clear existing orders for clean simulation
         orderRepository.deleteAll();
+        orderHistoryRepository.deleteAllInBatch();
+        timeSlotRollupService.clear();
+        liveQueueState.clear();
+        orderReadModel.clear();
         log.info("Cleared existing orders");
 
         // Generate Poisson arrival times
-        List<LocalDateTime> arrivalTimes = generatePoissonArrivals();
+        List<LocalDateTime> arrivalTimes = generatePoissonArrivals(arrivalRandom);
         log.info("Generated {} arrival times", arrivalTimes.size());
 
-        // Get drinks from database
-        List<Drink> drinks = drinkRepository.findAll();
-        Map<String, Drink> drinkMap = new HashMap<>();
-        for (Drink drink : drinks) {
-            drinkMap.put(drink.getName(), drink);
-        }
-
         // Create orders with generated arrival times
         int ordersCreated = 0;
         for (LocalDateTime arrivalTime : arrivalTimes) {
             // Select random drink based on frequency distribution
-            Drink selectedDrink = selectRandomDrink(drinkMap);
+            Drink selectedDrink = drinkSampler.sample(drinkRandom);
 
             // 30% chance of loyal customer
-            boolean isLoyal = random.nextDouble() < LOYAL_CUSTOMER_RATE;
+            boolean isLoyal = loyaltyRandom.nextDouble() < LOYAL_CUSTOMER_RATE;
 
             // Generate random customer name
             String customerName = "Customer_" + (ordersCreated + 1);
@@ -85,20 +97,30 @@ public class SimulationService {
             order.setPriorityScore(priorityService.calculatePriority(order));
 
             // Save order
-            orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            liveQueueState.track(saved);
+            orderReadModel.update(saved);
+            timeSlotRollupService.recordArrival(saved);
             ordersCreated++;
+
+            progress.ordersGenerated(ordersCreated, arrivalTimes.size());
+            if (progress.isCancelled()) {
+                log.info("Simulation cancelled after {} orders", ordersCreated);
+                return String.format("Simulation cancelled: %d of %d orders created", ordersCreated,
+                        arrivalTimes.size());
+            }
         }
 
         log.info("Simulation complete: {} orders created", ordersCreated);
-        return String.format("Simulation complete: %d orders created with Poisson arrivals (λ=%.1f)",
-                ordersCreated, LAMBDA);
+        return String.format("Simulation complete: %d orders created with Poisson arrivals (λ=%.1f, seed %d)",
+                ordersCreated, LAMBDA, usedSeed);
     }
 
     /**
      * Generate arrival times using Poisson distribution
      * Inter-arrival times follow exponential distribution with rate λ
      */
-    private List<LocalDateTime> generatePoissonArrivals() {
+    private List<LocalDateTime> generatePoissonArrivals(SplittableRandom random) {
         List<LocalDateTime> arrivalTimes = new ArrayList<>();
         LocalDate today = LocalDate.now();
         LocalDateTime currentTime = LocalDateTime.of(today, START_TIME);
@@ -135,31 +157,15 @@ public class SimulationService {
     }
 
     /**
-     * Select a random drink based on frequency distribution
+     * Get simulation statistics, coalesced like the dashboard KPIs
      */
-    private Drink selectRandomDrink(Map<String, Drink> drinkMap) {
-        double rand = random.nextDouble();
-        double cumulative = 0.0;
-
-        for (Map.Entry<String, Double> entry : DRINK_FREQUENCIES.entrySet()) {
-            cumulative += entry.getValue();
-            if (rand <= cumulative) {
-                Drink drink = drinkMap.get(entry.getKey());
-                if (drink != null) {
-                    return drink;
-                }
-            }
-        }
-
-        // Fallback: return first available drink
-        return drinkMap.values().iterator().next();
+    public Map<String, Object> getSimulationStats() {
+        return requestCoalescer.get("simulation-stats", this::computeSimulationStats);
     }
 
-    /**
-     * Get simulation statistics
-     */
-    public Map<String, Object> getSimulationStats() {
-        List<Order> allOrders = orderRepository.findAll();
+    private Map<String, Object> computeSimulationStats() {
+        List<Order> allOrders = new ArrayList<>(orderRepository.findAll());
+        orderHistoryRepository.findAll().forEach(h -> allOrders.add(h.toOrder()));
 
         Map<String, Long> drinkCounts = new HashMap<>();
         for (Order order : allOrders) {
@@ -177,12 +183,19 @@ public class SimulationService {
 
     /**
      * Process all waiting orders through completion for simulation
-     * WITH ADAPTIVE SCHEDULING to enforce avg wait < 10 min
+     * using the active simulation {@link SchedulingPolicy}
      */
     public String processSimulationOrders() {
-        log.info("Processing simulation orders with ADAPTIVE SCHEDULING...");
+        return processSimulationOrders(SimulationProgress.NONE);
+    }
+
+    public String processSimulationOrders(SimulationProgress progress) {
+        log.info("Processing simulation orders...");
 
         List<Order> allWaitingOrders = orderRepository.findByStatus(OrderStatus.WAITING);
+        // Arrival order matters below (get(0) is "next arrival"); don't rely on index order
+        allWaitingOrders.sort(Comparator.comparing(Order::getOrderTime));
+        int totalToProcess = allWaitingOrders.size();
 
         // Initialize simulated baristas
         LocalDateTime[] baristaFreeTime = new LocalDateTime[3];
@@ -195,8 +208,7 @@ public class SimulationService {
         double runningAvgWait = 0.0;
 
         int processed = 0;
-        int emergencyModeActivations = 0;
-        int warningModeActivations = 0;
+        SchedulingPolicy policy = policyRegistry.getActive(SchedulingPolicyRegistry.Scope.SIMULATION);
 
         while (!allWaitingOrders.isEmpty()) {
             // Find barista that will be free earliest
@@ -220,39 +232,8 @@ public class SimulationService {
                 availableOrders = List.of(allWaitingOrders.get(0));
             }
 
-            // ADAPTIVE SCHEDULING LOGIC WITH THROUGHPUT PROTECTION
-            Order selectedOrder;
-            final double currentAvg = runningAvgWait; // For lambda capture
-
-            // Count long jobs currently in progress (simulated)
-            long specialtyInProgress = 0; // 6 min jobs
-            long longInProgress = 0; // 4 min jobs
-
-            // Simple heuristic: check recent assignments
-            // (In real system, track actual barista assignments)
-
-            if (runningAvgWait >= 9.0) {
-                // CRITICAL MODE (was 9.0): Force shortest-job-first
-                selectedOrder = availableOrders.stream()
-                        .min(Comparator.comparing(o -> o.getDrink().getPrepTimeMinutes()))
-                        .orElse(availableOrders.get(0));
-                emergencyModeActivations++;
-                log.warn("CRITICAL MODE: Avg wait = {:.2f} min, selecting shortest job", runningAvgWait);
-
-            } else if (runningAvgWait >= 7.5) {
-                // WARNING MODE: Use throughput-aware priority
-                selectedOrder = availableOrders.stream()
-                        .max(Comparator.comparing(o -> priorityService.calculatePriorityWithThroughput(o, currentAvg)))
-                        .orElse(availableOrders.get(0));
-                warningModeActivations++;
-                log.info("WARNING MODE: Avg wait = {:.2f} min, using throughput-aware priority", runningAvgWait);
-
-            } else {
-                // NORMAL MODE: Use throughput-aware priority (always protect throughput)
-                selectedOrder = availableOrders.stream()
-                        .max(Comparator.comparing(o -> priorityService.calculatePriorityWithThroughput(o, currentAvg)))
-                        .orElse(availableOrders.get(0));
-            }
+            // Selection is delegated to the active simulation policy (ADAPTIVE by default)
+            Order selectedOrder = policy.select(availableOrders, currentTime, runningAvgWait);
 
             // Order can't start before it's placed
             LocalDateTime startTime = selectedOrder.getOrderTime().isAfter(earliestTime)
@@ -281,9 +262,19 @@ public class SimulationService {
 
             // Save and remove from waiting list
             orderRepository.save(selectedOrder);
+            liveQueueState.forget(selectedOrder.getId());
+            orderReadModel.update(selectedOrder);
+            timeSlotRollupService.recordCompletion(selectedOrder);
             allWaitingOrders.remove(selectedOrder);
             processed++;
 
+            progress.ordersProcessed(processed, totalToProcess, runningAvgWait);
+            if (progress.isCancelled()) {
+                log.info("Simulation processing cancelled after {} orders", processed);
+                return String.format("Processing cancelled after %d of %d orders - Avg wait: %.2f min",
+                        processed, totalToProcess, runningAvgWait);
+            }
+
             // Log progress every 50 orders
             if (processed % 50 == 0) {
                 log.info("Processed {}/{} orders, Running avg wait: {:.2f} min",
@@ -293,8 +284,7 @@ public class SimulationService {
 
         log.info("Simulation complete: {} orders processed", processed);
         log.info("Final avg wait: {:.2f} min", runningAvgWait);
-        log.info("Emergency mode activations: {}", emergencyModeActivations);
-        log.info("Warning mode activations: {}", warningModeActivations);
+        log.info("Scheduling policy: {}", policy.getName());
         log.info("Constraint: {}", runningAvgWait < 10.0 ? "PASSED" : "FAILED");
 
         return String.format("Processed %d orders - Avg wait: %.2f min (%s)",
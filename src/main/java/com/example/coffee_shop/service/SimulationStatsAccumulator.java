@@ -0,0 +1,267 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.StatsDTO;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.TimeSlotRollup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects simulated completions as primitive columns and turns them into a
+ * {@link StatsDTO} with the same definitions {@link StatsService} uses for
+ * real orders. Nothing is kept per order beyond a few numbers, so traces of
+ * millions of orders fit comfortably on the heap.
+ */
+public class SimulationStatsAccumulator {
+
+    private static final int BARISTAS = 3;
+    private static final int MAX_ROWS = 1 << 24; // Row index has to fit the packed sort keys below
+
+    private final String testName;
+    private final Map<Long, Integer> drinkIndex = new HashMap<>();
+    private final List<Drink> drinks = new ArrayList<>();
+
+    private long[] orderSeconds = new long[1024];
+    private long[] completionSeconds = new long[1024];
+    private int[] drinkIds = new int[1024];
+    private byte[] baristas = new byte[1024];
+    private boolean[] loyal = new boolean[1024];
+    private int size = 0;
+
+    public SimulationStatsAccumulator(String testName) {
+        this.testName = testName;
+    }
+
+    public void record(LocalDateTime orderTime, LocalDateTime completedTime, Drink drink, int barista,
+            boolean isLoyal) {
+        if (size == orderSeconds.length) {
+            if (size == MAX_ROWS) {
+                throw new IllegalStateException("Simulation too large for in-memory statistics");
+            }
+            int capacity = Math.min(MAX_ROWS, size * 2);
+            orderSeconds = Arrays.copyOf(orderSeconds, capacity);
+            completionSeconds = Arrays.copyOf(completionSeconds, capacity);
+            drinkIds = Arrays.copyOf(drinkIds, capacity);
+            baristas = Arrays.copyOf(baristas, capacity);
+            loyal = Arrays.copyOf(loyal, capacity);
+        }
+        orderSeconds[size] = orderTime.toEpochSecond(ZoneOffset.UTC);
+        completionSeconds[size] = completedTime.toEpochSecond(ZoneOffset.UTC);
+        drinkIds[size] = drinkIndex.computeIfAbsent(drink.getId(), id -> {
+            drinks.add(drink);
+            return drinks.size() - 1;
+        });
+        baristas[size] = (byte) barista;
+        loyal[size] = isLoyal;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public StatsDTO toStats() {
+        if (size == 0) {
+            return StatsDTO.builder()
+                    .validationStatus("no_data")
+                    .drinkDistribution(List.of())
+                    .baristaPerformance(List.of())
+                    .timeSlotPerformance(List.of())
+                    .build();
+        }
+
+        long waitSum = 0;
+        long maxWait = 0;
+        long timeouts = 0;
+        double weightedSum = 0;
+        double weightTotal = 0;
+        long totalPrep = 0;
+        long earliest = Long.MAX_VALUE;
+        long latest = Long.MIN_VALUE;
+        long[] baristaWaitSum = new long[BARISTAS];
+        int[] baristaCount = new int[BARISTAS];
+        int[] drinkCount = new int[drinks.size()];
+        int slots = TimeSlotRollup.SLOTS_PER_DAY;
+        long[] slotCount = new long[slots];
+        long[] slotWaitSum = new long[slots];
+        long[] slotWaitMax = new long[slots];
+        long[] slotTimeouts = new long[slots];
+
+        for (int i = 0; i < size; i++) {
+            long wait = wait(i);
+            waitSum += wait;
+            maxWait = Math.max(maxWait, wait);
+            if (wait > 10) {
+                timeouts++;
+            }
+            double weight = loyal[i] ? 1.5 : 1.0;
+            weightedSum += wait * weight;
+            weightTotal += weight;
+            totalPrep += drinks.get(drinkIds[i]).getPrepTimeMinutes();
+            earliest = Math.min(earliest, orderSeconds[i]);
+            latest = Math.max(latest, completionSeconds[i]);
+            baristaWaitSum[baristas[i]] += wait;
+            baristaCount[baristas[i]]++;
+            drinkCount[drinkIds[i]]++;
+
+            int slot = (int) (Math.floorMod(orderSeconds[i], 86_400L) / 1_800L);
+            slotCount[slot]++;
+            slotWaitSum[slot] += wait;
+            slotWaitMax[slot] = Math.max(slotWaitMax[slot], wait);
+            if (wait > 10) {
+                slotTimeouts[slot]++;
+            }
+        }
+
+        double avgWait = (double) waitSum / size;
+        long spanMinutes = (latest - earliest) / 60;
+        double utilization = spanMinutes == 0 ? 0.0
+                : Math.min(100.0, (totalPrep / (3.0 * spanMinutes)) * 100);
+
+        List<StatsDTO.DrinkDistribution> drinkDistribution = new ArrayList<>();
+        for (int d = 0; d < drinks.size(); d++) {
+            drinkDistribution.add(StatsDTO.DrinkDistribution.builder()
+                    .drinkType(drinks.get(d).getName())
+                    .orderCount(drinkCount[d])
+                    .percentage((drinkCount[d] * 100.0) / size)
+                    .prepTime(drinks.get(d).getPrepTimeMinutes())
+                    .build());
+        }
+        drinkDistribution.sort(Comparator.comparing(StatsDTO.DrinkDistribution::getOrderCount).reversed());
+
+        List<StatsDTO.TimeSlotPerformance> timeSlots = new ArrayList<>();
+        for (int s = 0; s < slots; s++) {
+            if (slotCount[s] == 0) {
+                continue;
+            }
+            timeSlots.add(StatsDTO.TimeSlotPerformance.builder()
+                    .timeSlot(TimeSlotRollupService.slotLabel(s))
+                    .customersArrived((int) slotCount[s])
+                    .ordersCompleted((int) slotCount[s])
+                    .avgWait((double) slotWaitSum[s] / slotCount[s])
+                    .maxWait(slotWaitMax[s])
+                    .timeoutPercent((slotTimeouts[s] * 100.0) / slotCount[s])
+                    .fairnessViolations(0)
+                    .build());
+        }
+
+        return StatsDTO.builder()
+                .totalOrders(size)
+                .avgWaitTime(avgWait)
+                .weightedAvgWait(weightedSum / weightTotal)
+                .maxWaitTime(maxWait)
+                .timeoutRate((timeouts * 100.0) / size)
+                .timeoutCount((int) timeouts)
+                .baristaUtilization(utilization)
+                .fairnessIssues(0) // Simulated orders are never skipped explicitly
+                .starvationCount(0)
+                .fifoSkips(fifoSkips())
+                .completionInversions((int) Math.min(Integer.MAX_VALUE, completionInversions()))
+                .complaintsRaised((int) timeouts)
+                .validationStatus(timeouts > 0 ? "warning" : "passed")
+                .violationsCount((int) timeouts)
+                .avgWaitConstraint(avgWait < 10.0 ? "PASSED" : "FAILED")
+                .failureReason(avgWait >= 10.0
+                        ? String.format("Average wait time (%.2f min) exceeded 10 minutes", avgWait)
+                        : null)
+                .drinkDistribution(drinkDistribution)
+                .baristaPerformance(List.of(StatsDTO.BaristaPerformance.builder()
+                        .testName(testName)
+                        .overallAvgWait(avgWait)
+                        .barista1Avg(average(baristaWaitSum[0], baristaCount[0]))
+                        .barista2Avg(average(baristaWaitSum[1], baristaCount[1]))
+                        .barista3Avg(average(baristaWaitSum[2], baristaCount[2]))
+                        .complaints((int) timeouts)
+                        .build()))
+                .timeSlotPerformance(timeSlots)
+                .build();
+    }
+
+    private long wait(int i) {
+        return (completionSeconds[i] - orderSeconds[i]) / 60; // Whole minutes, like Duration.toMinutes
+    }
+
+    private static double average(long sum, int count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Rows sorted by the given column, ties broken by row index (a stable sort).
+     * Keys pack (value - min) above the 24-bit row index.
+     */
+    private int[] sortedRows(long[] column) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, column[i]);
+        }
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((column[i] - min) << 24) | i;
+        }
+        Arrays.sort(keys);
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = (int) (keys[i] & 0xFFFFFF);
+        }
+        return rows;
+    }
+
+    private int fifoSkips() {
+        int[] byOrder = sortedRows(orderSeconds);
+        int[] byCompletion = sortedRows(completionSeconds);
+        int skips = 0;
+        for (int i = 0; i < size; i++) {
+            if (byOrder[i] != byCompletion[i]) {
+                skips++;
+            }
+        }
+        return skips;
+    }
+
+    /**
+     * Pairs where an earlier order completed strictly after a later one,
+     * counted with a merge sort in O(n log n).
+     */
+    private long completionInversions() {
+        int[] byOrder = sortedRows(orderSeconds);
+        long[] completions = new long[size];
+        for (int i = 0; i < size; i++) {
+            completions[i] = completionSeconds[byOrder[i]];
+        }
+        return countInversions(completions, new long[size], 0, size);
+    }
+
+    private static long countInversions(long[] a, long[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return 0;
+        }
+        int mid = (from + to) >>> 1;
+        long count = countInversions(a, buffer, from, mid) + countInversions(a, buffer, mid, to);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            if (a[i] <= a[j]) {
+                buffer[k++] = a[i++];
+            } else {
+                count += mid - i; // a[i..mid) are all strictly greater than a[j]
+                buffer[k++] = a[j++];
+            }
+        }
+        while (i < mid) {
+            buffer[k++] = a[i++];
+        }
+        while (j < to) {
+            buffer[k++] = a[j++];
+        }
+        System.arraycopy(buffer, from, a, from, to - from);
+        return count;
+    }
+}
@@ -1,15 +1,17 @@
 package com.example.coffee_shop.service;
 
+import com.example.coffee_shop.dto.HistoryStatsDTO;
 import com.example.coffee_shop.dto.StatsDTO;
 import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.repository.OrderHistoryRepository;
 import com.example.coffee_shop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,10 +21,23 @@ import java.util.stream.Collectors;
 public class StatsService {
 
         private final OrderRepository orderRepository;
-
+        private final OrderHistoryRepository orderHistoryRepository;
+        private final ColumnarHistoryStore columnarHistoryStore;
+        private final TimeSlotRollupService timeSlotRollupService;
+        private final RequestCoalescer requestCoalescer;
+
+        /**
+         * Dashboard KPIs. Concurrent callers share one computation, see
+         * {@link RequestCoalescer}.
+         */
         public StatsDTO calculateStatistics() {
-                // Get all orders from database
-                List<Order> allOrders = orderRepository.findAll();
+                return requestCoalescer.get("stats", this::computeStatistics);
+        }
+
+        private StatsDTO computeStatistics() {
+                // Get all orders from database (live table plus archived history)
+                List<Order> allOrders = new ArrayList<>(orderRepository.findAll());
+                orderHistoryRepository.findAll().forEach(h -> allOrders.add(h.toOrder()));
 
                 // Filter completed orders for accurate statistics
                 List<Order> completedOrders = allOrders.stream()
@@ -68,7 +83,8 @@ public class StatsService {
                 // Distribution and performance data
                 List<StatsDTO.DrinkDistribution> drinkDistribution = calculateDrinkDistribution(completedOrders);
                 List<StatsDTO.BaristaPerformance> baristaPerformance = calculateBaristaPerformance(completedOrders);
-                List<StatsDTO.TimeSlotPerformance> timeSlotPerformance = calculateTimeSlotPerformance(completedOrders);
+                List<StatsDTO.TimeSlotPerformance> timeSlotPerformance = timeSlotRollupService
+                                .getTimeSlotPerformance(null, null);
 
                 return StatsDTO.builder()
                                 .totalOrders(totalOrders)
@@ -93,6 +109,27 @@ public class StatsService {
                                 .build();
         }
 
+        /**
+         * Long-range wait-time aggregates served from the columnar history store
+         * rather than from MySQL.
+         */
+        public HistoryStatsDTO calculateHistoryStatistics(LocalDate from, LocalDate to) {
+                if (to.isBefore(from)) {
+                        throw new IllegalArgumentException("'to' must not be before 'from'");
+                }
+                return columnarHistoryStore.scan(from, to);
+        }
+
+        /**
+         * Time-slot chart for a date range, read from the pre-aggregated rollups.
+         */
+        public List<StatsDTO.TimeSlotPerformance> getTimeSlotPerformance(LocalDate from, LocalDate to) {
+                if (from != null && to != null && to.isBefore(from)) {
+                        throw new IllegalArgumentException("'to' must not be before 'from'");
+                }
+                return timeSlotRollupService.getTimeSlotPerformance(from, to);
+        }
+
         private double getWaitTime(Order order) {
                 if (order.getOrderTime() == null || order.getCompletedTime() == null) {
                         return 0.0;
@@ -240,47 +277,6 @@ public class StatsService {
                                 .build());
         }
 
-        private List<StatsDTO.TimeSlotPerformance> calculateTimeSlotPerformance(List<Order> orders) {
-                // Group by 30-minute time slots
-                Map<String, List<Order>> ordersBySlot = orders.stream()
-                                .collect(Collectors.groupingBy(o -> getTimeSlot(o.getOrderTime())));
-
-                return ordersBySlot.entrySet().stream()
-                                .map(e -> {
-                                        List<Order> slotOrders = e.getValue();
-                                        long timeouts = slotOrders.stream().filter(o -> getWaitTime(o) > 10.0).count();
-                                        double timeoutPercent = (timeouts * 100.0) / slotOrders.size();
-
-                                        return StatsDTO.TimeSlotPerformance.builder()
-                                                        .timeSlot(e.getKey())
-                                                        .customersArrived(slotOrders.size())
-                                                        .ordersCompleted(slotOrders.size())
-                                                        .avgWait(slotOrders.stream().mapToDouble(this::getWaitTime)
-                                                                        .average().orElse(0.0))
-                                                        .maxWait(slotOrders.stream().mapToDouble(this::getWaitTime)
-                                                                        .max().orElse(0.0))
-                                                        .timeoutPercent(timeoutPercent)
-                                                        .fairnessViolations((int) slotOrders.stream()
-                                                                        .filter(o -> o.getTimesSkipped() > 0).count())
-                                                        .build();
-                                })
-                                .sorted(Comparator.comparing(StatsDTO.TimeSlotPerformance::getTimeSlot))
-                                .toList();
-        }
-
-        private String getTimeSlot(LocalDateTime dateTime) {
-                LocalTime time = dateTime.toLocalTime();
-                int hour = time.getHour();
-                int minute = time.getMinute();
-
-                // Round to 30-minute slots
-                int slotMinute = (minute < 30) ? 0 : 30;
-                LocalTime slotStart = LocalTime.of(hour, slotMinute);
-                LocalTime slotEnd = slotStart.plusMinutes(30);
-
-                return slotStart.toString() + "-" + slotEnd.toString();
-        }
-
         private StatsDTO createEmptyStats() {
                 return StatsDTO.builder()
                                 .totalOrders(0)
@@ -0,0 +1,247 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.StatsDTO;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.TimeSlotRollup;
+import com.example.coffee_shop.repository.TimeSlotRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the 30-minute {@link TimeSlotRollup} counters incrementally and
+ * serves time-slot charts from them instead of regrouping raw orders.
+ *
+ * Live arrivals and completions are not upserted inside the order's own
+ * transaction: every order in a slot hits the same row, so its lock would
+ * serialize order placement during a rush. They are summed in memory after
+ * commit and written once per slot every coffee.rollup.flush-interval-ms.
+ */
+@Service
+@Slf4j
+public class TimeSlotRollupService {
+
+    private static final String[] SLOT_LABELS = new String[TimeSlotRollup.SLOTS_PER_DAY];
+
+    static {
+        for (int i = 0; i < SLOT_LABELS.length; i++) {
+            LocalTime start = LocalTime.of(i / 2, (i % 2) * 30);
+            SLOT_LABELS[i] = start + "-" + start.plusMinutes(30);
+        }
+    }
+
+    private final TimeSlotRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStart;
+
+    // Slot key -> arrivals, completions, waitSum, waitMax, timeouts, fairness; guarded by this
+    private Map<Long, long[]> pending = new HashMap<>();
+
+    public TimeSlotRollupService(TimeSlotRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${coffee.rollup.backfill-on-start:true}") boolean backfillOnStart) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStart = backfillOnStart;
+    }
+
+    public static int slotIndex(LocalDateTime time) {
+        return time.getHour() * 2 + (time.getMinute() < 30 ? 0 : 1);
+    }
+
+    public static String slotLabel(int slotIndex) {
+        return SLOT_LABELS[slotIndex];
+    }
+
+    /**
+     * Count an arrival once the surrounding transaction commits.
+     */
+    public void recordArrival(Order order) {
+        long key = key(order.getOrderTime());
+        AfterCommit.run(() -> add(key, new long[] { 1, 0, 0, 0, 0, 0 }));
+    }
+
+    /**
+     * Count a completion against the slot the order was placed in, matching how
+     * the time-slot chart has always bucketed orders. Applied after commit.
+     */
+    public void recordCompletion(Order order) {
+        long key = key(order.getOrderTime());
+        long wait = Duration.between(order.getOrderTime(), order.getCompletedTime()).toMinutes();
+        long[] delta = { 0, 1, wait, wait, wait > 10 ? 1 : 0, order.getTimesSkipped() > 0 ? 1 : 0 };
+        AfterCommit.run(() -> add(key, delta));
+    }
+
+    private synchronized void add(long key, long[] delta) {
+        merge(pending.computeIfAbsent(key, k -> new long[6]), delta);
+    }
+
+    private static void merge(long[] into, long[] delta) {
+        into[0] += delta[0];
+        into[1] += delta[1];
+        into[2] += delta[2];
+        into[3] = Math.max(into[3], delta[3]);
+        into[4] += delta[4];
+        into[5] += delta[5];
+    }
+
+    /**
+     * Write the buffered deltas, one upsert per slot in key order. On failure
+     * they go back into the buffer for the next run.
+     */
+    @Scheduled(fixedDelayString = "${coffee.rollup.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        Map<Long, long[]> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new TreeMap<>(pending);
+            pending = new HashMap<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((key, t) -> rollupRepository
+                    .recordTotals(key, key / TimeSlotRollup.SLOTS_PER_DAY, (int) (key % TimeSlotRollup.SLOTS_PER_DAY),
+                            t[0], t[1], t[2], t[3], t[4], t[5])));
+        } catch (DataAccessException e) {
+            log.warn("Could not write {} time-slot rollups, retrying next run", batch.size(), e);
+            batch.forEach(this::add);
+        }
+    }
+
+    /**
+     * Count a batch of orders placed (and possibly finished) in the past, one
+     * upsert per touched slot instead of one or two per order.
+     */
+    @Transactional
+    public void recordAll(Collection<Order> orders) {
+        Map<Long, long[]> totals = new HashMap<>(); // arrivals, completions, waitSum, waitMax, timeouts, fairness
+        for (Order order : orders) {
+            LocalDateTime orderTime = order.getOrderTime();
+            long[] t = totals.computeIfAbsent(key(orderTime.toLocalDate().toEpochDay(), slotIndex(orderTime)),
+                    k -> new long[6]);
+            t[0]++;
+            if (order.getCompletedTime() != null) {
+                long wait = Duration.between(orderTime, order.getCompletedTime()).toMinutes();
+                t[1]++;
+                t[2] += wait;
+                t[3] = Math.max(t[3], wait);
+                t[4] += wait > 10 ? 1 : 0;
+                t[5] += order.getTimesSkipped() > 0 ? 1 : 0;
+            }
+        }
+        totals.forEach((key, t) -> rollupRepository.recordTotals(key, key / TimeSlotRollup.SLOTS_PER_DAY,
+                (int) (key % TimeSlotRollup.SLOTS_PER_DAY), t[0], t[1], t[2], t[3], t[4], t[5]));
+    }
+
+    @Transactional
+    public void clear() {
+        synchronized (this) {
+            pending = new HashMap<>();
+        }
+        rollupRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Time-slot performance over a date range (inclusive); null bounds mean
+     * all recorded days. Days are summed per slot of the day.
+     */
+    public List<StatsDTO.TimeSlotPerformance> getTimeSlotPerformance(LocalDate from, LocalDate to) {
+        List<TimeSlotRollup> rollups = (from == null && to == null)
+                ? rollupRepository.findAll()
+                : rollupRepository.findByEpochDayBetween(
+                        from != null ? from.toEpochDay() : Long.MIN_VALUE,
+                        to != null ? to.toEpochDay() : Long.MAX_VALUE);
+
+        long[] arrivals = new long[TimeSlotRollup.SLOTS_PER_DAY];
+        long[] completions = new long[TimeSlotRollup.SLOTS_PER_DAY];
+        long[] waitSum = new long[TimeSlotRollup.SLOTS_PER_DAY];
+        long[] waitMax = new long[TimeSlotRollup.SLOTS_PER_DAY];
+        long[] timeouts = new long[TimeSlotRollup.SLOTS_PER_DAY];
+        long[] fairness = new long[TimeSlotRollup.SLOTS_PER_DAY];
+        for (TimeSlotRollup r : rollups) {
+            int i = r.getSlotIndex();
+            arrivals[i] += r.getArrivals();
+            completions[i] += r.getCompletions();
+            waitSum[i] += r.getWaitSum();
+            waitMax[i] = Math.max(waitMax[i], r.getWaitMax());
+            timeouts[i] += r.getTimeouts();
+            fairness[i] += r.getFairnessViolations();
+        }
+        synchronized (this) { // Not flushed yet
+            pending.forEach((key, t) -> {
+                long epochDay = key / TimeSlotRollup.SLOTS_PER_DAY;
+                if ((from == null || epochDay >= from.toEpochDay()) && (to == null || epochDay <= to.toEpochDay())) {
+                    int i = (int) (key % TimeSlotRollup.SLOTS_PER_DAY);
+                    arrivals[i] += t[0];
+                    completions[i] += t[1];
+                    waitSum[i] += t[2];
+                    waitMax[i] = Math.max(waitMax[i], t[3]);
+                    timeouts[i] += t[4];
+                    fairness[i] += t[5];
+                }
+            });
+        }
+
+        List<StatsDTO.TimeSlotPerformance> result = new ArrayList<>();
+        for (int i = 0; i < TimeSlotRollup.SLOTS_PER_DAY; i++) {
+            if (completions[i] == 0) {
+                continue; // Chart only shows slots with finished orders
+            }
+            result.add(StatsDTO.TimeSlotPerformance.builder()
+                    .timeSlot(SLOT_LABELS[i])
+                    .customersArrived((int) arrivals[i])
+                    .ordersCompleted((int) completions[i])
+                    .avgWait((double) waitSum[i] / completions[i])
+                    .maxWait(waitMax[i])
+                    .timeoutPercent((timeouts[i] * 100.0) / completions[i])
+                    .fairnessViolations((int) fairness[i])
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Seed the rollups from the order tables the first time the application
+     * starts with an empty rollup table (e.g. right after upgrading).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (!backfillOnStart || rollupRepository.count() > 0) {
+            return;
+        }
+        int slots = rollupRepository.backfillFromOrders();
+        if (slots > 0) {
+            log.info("Backfilled {} time-slot rollups from existing orders", slots);
+        }
+    }
+
+    private static long key(LocalDateTime time) {
+        return key(time.toLocalDate().toEpochDay(), slotIndex(time));
+    }
+
+    private static long key(long epochDay, int slotIndex) {
+        return epochDay * TimeSlotRollup.SLOTS_PER_DAY + slotIndex;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies stateless access tokens:
+ * {@code base64url(username) "." expiryEpochSeconds "." base64url(HMAC-SHA256)}.
+ *
+ * Verifying costs one HMAC over a few dozen bytes, instead of a user lookup
+ * and a BCrypt check per request as with HTTP Basic.
+ */
+@Service
+@Slf4j
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    // Mac instances are not thread-safe; one per request thread
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    public TokenService(@Value("${coffee.auth.token-secret:}") String secret,
+            @Value("${coffee.auth.token-ttl-minutes:720}") long ttlMinutes,
+            Environment environment) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // Tokens won't survive a restart or work across replicas: only acceptable in dev
+            // (the default profile) and for the offline export, which issues no tokens
+            if (!environment.matchesProfiles("dev | export")) {
+                throw new IllegalStateException("coffee.auth.token-secret (COFFEE_TOKEN_SECRET) must be set "
+                        + "outside the dev profile");
+            }
+            log.warn("coffee.auth.token-secret not set, using a random per-process key");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32) {
+                throw new IllegalStateException("coffee.auth.token-secret must be at least 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlMinutes * 60;
+    }
+
+    public String issue(User user) {
+        long expiresAt = Instant.now().getEpochSecond() + ttlSeconds;
+        String payload = ENCODER.encodeToString(user.getUsername().getBytes(StandardCharsets.UTF_8))
+                + "." + expiresAt;
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * @return the username if the signature matches and the token has not
+     *         expired, empty otherwise
+     */
+    public Optional<String> verify(String token) {
+        int sigStart = token.lastIndexOf('.');
+        int expStart = token.lastIndexOf('.', sigStart - 1);
+        if (sigStart < 0 || expStart < 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, sigStart);
+        try {
+            byte[] signature = DECODER.decode(token.substring(sigStart + 1));
+            // Constant-time comparison so the MAC can't be guessed byte by byte
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(token.substring(expStart + 1, sigStart));
+            if (Instant.now().getEpochSecond() >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(DECODER.decode(token.substring(0, expStart)), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty(); // Malformed base64 or expiry
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac m = Mac.getInstance(ALGORITHM);
+            m.init(key);
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU of username to granted authorities, so a token-authenticated
+ * request normally never touches the users table. Users that don't exist are
+ * not cached.
+ *
+ * Entries expire after coffee.auth.authority-cache-ttl-seconds, far below the
+ * token TTL, so a role change or a deleted user made directly in the database
+ * takes effect (and a deleted user's tokens stop working) within that window.
+ */
+@Component
+public class UserAuthorityCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<String, Entry> cache;
+
+    public UserAuthorityCache(UserRepository userRepository,
+            @Value("${coffee.auth.authority-cache-size:10000}") int maxEntries,
+            @Value("${coffee.auth.authority-cache-ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<List<GrantedAuthority>> getAuthorities(String username) {
+        long now = System.nanoTime();
+        synchronized (cache) {
+            Entry cached = cache.get(username);
+            if (cached != null && now - cached.loadedAt < ttlNanos) {
+                return Optional.of(cached.authorities);
+            }
+        }
+        // Load outside the lock; a concurrent miss just loads twice
+        Optional<List<GrantedAuthority>> loaded = userRepository.findByUsername(username)
+                .map(user -> List.<GrantedAuthority>of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+        synchronized (cache) {
+            if (loaded.isPresent()) {
+                cache.put(username, new Entry(loaded.get(), now));
+            } else {
+                cache.remove(username); // Deleted since it was cached
+            }
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        synchronized (cache) {
+            cache.remove(username);
+        }
+    }
+
+    private record Entry(List<GrantedAuthority> authorities, long loadedAt) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.BaristaStatus;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.repository.BaristaRepository;
+import com.example.coffee_shop.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds {@link LiveQueueState} (and the live part of {@link OrderReadModel})
+ * at boot from one streaming query over the non-terminal orders, then kicks
+ * off the first scheduler tick straight away.
+ *
+ * Runs as an {@link ApplicationRunner}, so Spring Boot only flips the readiness
+ * probe to ACCEPTING_TRAFFIC once the rebuild is done. Not part of the export
+ * CLI, which must never dispatch orders alongside the running app.
+ */
+@Service
+@Profile("!export")
+@RequiredArgsConstructor
+@Slf4j
+@org.springframework.core.annotation.Order(2) // after DataSeeder
+public class WarmStartService implements ApplicationRunner {
+
+    private static final EnumSet<OrderStatus> LIVE_STATUSES = EnumSet.of(
+            OrderStatus.PLACED, OrderStatus.WAITING, OrderStatus.PREPARING, OrderStatus.READY_TO_PICKUP);
+
+    private final OrderRepository orderRepository;
+    private final BaristaRepository baristaRepository;
+    private final LiveQueueState liveQueueState;
+    private final OrderReadModel orderReadModel;
+    private final BaristaScheduler baristaScheduler;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        int restored = readOnly.execute(status -> rebuild());
+
+        liveQueueState.markReady();
+        log.info("Warm start: restored {} live orders ({} waiting, {} preparing, {} free baristas) in {} ms",
+                restored, liveQueueState.getWaitingCount(), liveQueueState.getPreparingCount(),
+                liveQueueState.getFreeBaristaIds().size(), (System.nanoTime() - started) / 1_000_000);
+
+        // Don't wait up to a full fixedRate period for the first dispatch; a
+        // scheduled tick that lands meanwhile is skipped, not run alongside
+        baristaScheduler.processQueue();
+    }
+
+    private int rebuild() {
+        liveQueueState.clear();
+        orderReadModel.clear();
+
+        List<Barista> activeBaristas = baristaRepository.findByStatus(BaristaStatus.ACTIVE);
+        liveQueueState.setActiveBaristas(activeBaristas);
+
+        int restored = 0;
+        try (Stream<Order> orders = orderRepository.streamByStatusIn(LIVE_STATUSES)) {
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                liveQueueState.restore(order);
+                orderReadModel.fill(order);
+                entityManager.detach(order); // keep the persistence context flat on big backlogs
+                restored++;
+            }
+        }
+        return restored;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.WorkloadSpec;
+import com.example.coffee_shop.dto.WorkloadSpec.RatePoint;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.repository.DrinkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic arrivals from a non-homogeneous Poisson process, generated by
+ * thinning (Lewis and Shedler): candidates are drawn at the segment's peak
+ * rate and kept with probability rate(t) / peak. The rate profile is
+ * piecewise linear, so each segment has its own peak and quiet hours cost
+ * almost nothing.
+ *
+ * Arrivals are produced lazily in time order and never collected, so a
+ * workload of millions of orders can be fed to {@link QueueSimulator} or
+ * written out as CSV in constant memory.
+ */
+@Service
+public class WorkloadGenerator {
+
+    public static final int MAX_DAYS = 3660;
+
+    /** Weekday with a breakfast rush and a smaller lunch peak, ~570 orders a day. */
+    static final List<RatePoint> DEFAULT_PROFILE = List.of(
+            new RatePoint(LocalTime.of(6, 30), 0.0),
+            new RatePoint(LocalTime.of(7, 0), 1.0),
+            new RatePoint(LocalTime.of(7, 45), 2.0),
+            new RatePoint(LocalTime.of(8, 30), 2.0),
+            new RatePoint(LocalTime.of(9, 30), 0.8),
+            new RatePoint(LocalTime.of(11, 30), 0.6),
+            new RatePoint(LocalTime.of(12, 15), 1.4),
+            new RatePoint(LocalTime.of(13, 30), 0.6),
+            new RatePoint(LocalTime.of(16, 0), 0.5),
+            new RatePoint(LocalTime.of(18, 0), 0.0));
+
+    private static final DateTimeFormatter CSV_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final DrinkRepository drinkRepository;
+    private final long maxOrders;
+
+    public WorkloadGenerator(DrinkRepository drinkRepository,
+            @Value("${coffee.simulation.workload.max-orders:10000000}") long maxOrders) {
+        this.drinkRepository = drinkRepository;
+        this.maxOrders = maxOrders;
+    }
+
+    /**
+     * Validate a spec against the menu and fix its seed. The result can be
+     * iterated any number of times and yields the same arrivals each time.
+     */
+    public Workload prepare(WorkloadSpec spec) {
+        List<RatePoint> profile = spec.getRateProfile() == null ? DEFAULT_PROFILE : spec.getRateProfile();
+        if (profile.size() < 2) {
+            throw new IllegalArgumentException("rateProfile needs at least two points");
+        }
+        double[] minutes = new double[profile.size()];
+        double[] rates = new double[profile.size()];
+        for (int i = 0; i < profile.size(); i++) {
+            RatePoint point = profile.get(i);
+            if (point == null || point.getTime() == null) {
+                throw new IllegalArgumentException("rateProfile points need a time");
+            }
+            if (!(point.getPerMinute() >= 0) || Double.isInfinite(point.getPerMinute())) {
+                throw new IllegalArgumentException("rateProfile rates must be finite and non-negative");
+            }
+            minutes[i] = point.getTime().toSecondOfDay() / 60.0;
+            rates[i] = point.getPerMinute() * spec.getScale();
+            if (i > 0 && minutes[i] <= minutes[i - 1]) {
+                throw new IllegalArgumentException("rateProfile times must be strictly increasing within a day");
+            }
+        }
+        if (spec.getDays() < 1 || spec.getDays() > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        if (!(spec.getScale() > 0) || Double.isInfinite(spec.getScale())) {
+            throw new IllegalArgumentException("scale must be positive");
+        }
+        double[] dayFactors = spec.getDayFactors() == null || spec.getDayFactors().isEmpty()
+                ? new double[] { 1.0 }
+                : spec.getDayFactors().stream().mapToDouble(f -> f == null ? -1 : f).toArray();
+        for (double f : dayFactors) {
+            if (!(f >= 0) || Double.isInfinite(f)) {
+                throw new IllegalArgumentException("dayFactors must be finite and non-negative");
+            }
+        }
+        if (!(spec.getLoyalRate() >= 0 && spec.getLoyalRate() <= 1)) {
+            throw new IllegalArgumentException("loyalRate must be between 0 and 1");
+        }
+        if (spec.getMaxOrders() != null && spec.getMaxOrders() <= 0) {
+            throw new IllegalArgumentException("maxOrders must be positive");
+        }
+
+        List<Drink> menu = drinkRepository.findAll();
+        DrinkSampler drinks;
+        Map<Long, Double> mix = spec.getDrinkMix();
+        if (mix == null || mix.isEmpty()) {
+            drinks = new DrinkSampler(menu);
+        } else {
+            mix.forEach((id, weight) -> {
+                if (menu.stream().noneMatch(d -> d.getId().equals(id))) {
+                    throw new IllegalArgumentException("Unknown drink id in drinkMix: " + id);
+                }
+                if (weight == null || !(weight >= 0) || Double.isInfinite(weight)) {
+                    throw new IllegalArgumentException("drinkMix weights must be finite and non-negative");
+                }
+            });
+            if (mix.values().stream().mapToDouble(Double::doubleValue).sum() <= 0) {
+                throw new IllegalArgumentException("drinkMix needs at least one positive weight");
+            }
+            drinks = new DrinkSampler(menu, d -> mix.getOrDefault(d.getId(), 0.0));
+        }
+
+        long limit = spec.getMaxOrders() == null ? maxOrders : Math.min(spec.getMaxOrders(), maxOrders);
+        long seed = spec.getSeed() != null ? spec.getSeed() : new SplittableRandom().nextLong();
+        LocalDate start = spec.getStartDate() != null ? spec.getStartDate() : LocalDate.now();
+        return new Workload(start, spec.getDays(), minutes, rates, dayFactors, drinks, spec.getLoyalRate(),
+                limit, seed);
+    }
+
+    /**
+     * Stream a workload as CSV ({@code order_time,drink_id,loyal}) and return
+     * the number of rows written. The stream is not closed.
+     */
+    public long writeCsv(Workload workload, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        writer.write("order_time,drink_id,loyal\n");
+        long rows = 0;
+        for (SimulatedArrival arrival : workload) {
+            CSV_TIME.formatTo(arrival.orderTime(), writer);
+            writer.write(',');
+            writer.write(Long.toString(arrival.drink().getId()));
+            writer.write(arrival.loyal() ? ",true\n" : ",false\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * A validated, seeded workload. Cheap to hold: only the profile and the
+     * alias table, never the arrivals.
+     */
+    public static final class Workload implements Iterable<SimulatedArrival> {
+
+        private final LocalDate start;
+        private final int days;
+        private final double[] minutes; // Profile point times, minutes after midnight
+        private final double[] rates; // Already scaled
+        private final double[] dayFactors;
+        private final DrinkSampler drinks;
+        private final double loyalRate;
+        private final long limit;
+        private final long seed;
+
+        private Workload(LocalDate start, int days, double[] minutes, double[] rates, double[] dayFactors,
+                DrinkSampler drinks, double loyalRate, long limit, long seed) {
+            this.start = start;
+            this.days = days;
+            this.minutes = minutes;
+            this.rates = rates;
+            this.dayFactors = dayFactors;
+            this.drinks = drinks;
+            this.loyalRate = loyalRate;
+            this.limit = limit;
+            this.seed = seed;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Mean number of arrivals over all days, before the order cap.
+         */
+        public double expectedOrders() {
+            double perDay = 0;
+            for (int i = 1; i < minutes.length; i++) {
+                perDay += (minutes[i] - minutes[i - 1]) * (rates[i] + rates[i - 1]) / 2;
+            }
+            double total = 0;
+            for (int d = 0; d < days; d++) {
+                total += perDay * dayFactors[d % dayFactors.length];
+            }
+            return total;
+        }
+
+        @Override
+        public Iterator<SimulatedArrival> iterator() {
+            return new ArrivalIterator();
+        }
+
+        private final class ArrivalIterator implements Iterator<SimulatedArrival> {
+
+            // Same split order as SimulationService: arrivals, drinks, loyalty
+            private final SplittableRandom arrivalRandom;
+            private final SplittableRandom drinkRandom;
+            private final SplittableRandom loyaltyRandom;
+
+            private int day = 0;
+            private int segment = -1;
+            private LocalDateTime segmentStart;
+            private double segmentLength; // Minutes
+            private double startRate;
+            private double endRate;
+            private double peakRate;
+            private double t; // Minutes into the segment
+
+            private long emitted = 0;
+            private SimulatedArrival next;
+
+            private ArrivalIterator() {
+                SplittableRandom root = new SplittableRandom(seed);
+                arrivalRandom = root.split();
+                drinkRandom = root.split();
+                loyaltyRandom = root.split();
+                nextSegment();
+                next = advance();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public SimulatedArrival next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                SimulatedArrival current = next;
+                next = advance();
+                return current;
+            }
+
+            private SimulatedArrival advance() {
+                while (emitted < limit && day < days) {
+                    if (peakRate > 0) {
+                        t += -Math.log(1.0 - arrivalRandom.nextDouble()) / peakRate;
+                    }
+                    if (peakRate <= 0 || t >= segmentLength) {
+                        nextSegment(); // Exponential gaps are memoryless, so restarting here is exact
+                        continue;
+                    }
+                    double rate = startRate + (endRate - startRate) * (t / segmentLength);
+                    if (arrivalRandom.nextDouble() * peakRate < rate) {
+                        emitted++;
+                        LocalDateTime time = segmentStart.plusNanos((long) (t * 60e9));
+                        return new SimulatedArrival(time, drinks.sample(drinkRandom),
+                                loyaltyRandom.nextDouble() < loyalRate);
+                    }
+                }
+                return null;
+            }
+
+            private void nextSegment() {
+                segment++;
+                if (segment == minutes.length - 1) {
+                    segment = 0;
+                    day++;
+                }
+                double factor = dayFactors[day % dayFactors.length];
+                segmentStart = start.plusDays(day).atStartOfDay()
+                        .plus(Duration.ofNanos((long) (minutes[segment] * 60e9)));
+                segmentLength = minutes[segment + 1] - minutes[segment];
+                startRate = rates[segment] * factor;
+                endRate = rates[segment + 1] * factor;
+                peakRate = Math.max(startRate, endRate);
+                t = 0;
+            }
+        }
+    }
+}
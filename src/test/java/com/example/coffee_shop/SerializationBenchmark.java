@@ -0,0 +1,121 @@
+package com.example.coffee_shop;
+
+import com.example.coffee_shop.dto.OrderResponse;
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes and serialization CPU for 10k orders: the old nested entity JSON
+ * against the flat {@link OrderResponse} in JSON, CBOR and Smile, raw and
+ * gzipped. Not a test; run the main method from the IDE or with
+ * {@code java -cp target/test-classes:target/classes:<deps> com.example.coffee_shop.SerializationBenchmark}.
+ */
+public class SerializationBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 30;
+
+    public static void main(String[] args) throws IOException {
+        List<Order> orders = sampleOrders();
+        List<OrderResponse> flat = orders.stream().map(OrderResponse::from).toList();
+
+        System.out.printf("%-26s %12s %12s %14s%n", "format", "bytes", "gzip bytes", "cpu ms / 10k");
+        report("entity JSON (before)", JsonMapper.builder().build(), orders);
+        report("OrderResponse JSON", JsonMapper.builder().build(), flat);
+        report("OrderResponse CBOR", CBORMapper.builder().build(), flat);
+        report("OrderResponse Smile", SmileMapper.builder().build(), flat);
+    }
+
+    private static void report(String label, ObjectMapper mapper, Object value) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        byte[] bytes = null;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = mapper.writeValueAsBytes(value);
+        }
+        long[] cpuNanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = threads.getCurrentThreadCpuTime();
+            bytes = mapper.writeValueAsBytes(value);
+            cpuNanos[i] = threads.getCurrentThreadCpuTime() - start;
+        }
+        Arrays.sort(cpuNanos);
+        System.out.printf("%-26s %12d %12d %14.2f%n", label, bytes.length, gzip(bytes).length,
+                cpuNanos[RUNS / 2] / 1e6);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    // A live-table mix: mostly waiting, three preparing, the rest done
+    private static List<Order> sampleOrders() {
+        String[] names = { "Cold Brew", "Espresso", "Americano", "Cappuccino", "Latte", "Mocha" };
+        int[] prep = { 1, 2, 2, 4, 4, 6 };
+        List<Drink> drinks = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            Drink drink = new Drink();
+            drink.setId((long) i + 1);
+            drink.setName(names[i]);
+            drink.setPrepTimeMinutes(prep[i]);
+            drink.setPrice(2.5 + i * 0.5);
+            drink.setDemandFrequency(0.15);
+            drinks.add(drink);
+        }
+        List<Barista> baristas = new ArrayList<>();
+        for (String name : new String[] { "Alice", "Bob", "Charlie" }) {
+            Barista barista = new Barista();
+            barista.setId((long) baristas.size() + 1);
+            barista.setName(name);
+            baristas.add(barista);
+        }
+
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 5, 7, 0);
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setId((long) i + 1);
+            order.setCustomerName("Customer_" + (i + 1));
+            order.setDrink(drinks.get(random.nextInt(drinks.size())));
+            order.setLoyal(random.nextDouble() < 0.3);
+            order.setOrderTime(start.plusSeconds(i * 20L));
+            order.setHardDeadline(order.getOrderTime().plusMinutes(10));
+            order.setPriorityScore(random.nextDouble() * 60);
+            if (i < ORDERS / 2) {
+                order.setStatus(OrderStatus.COMPLETED);
+                order.setAssignedBarista(baristas.get(i % 3));
+                order.setCompletedTime(order.getOrderTime().plusMinutes(4));
+            } else if (i < ORDERS / 2 + 3) {
+                order.setStatus(OrderStatus.PREPARING);
+                order.setAssignedBarista(baristas.get(i % 3));
+                order.setEstimatedCompletionTime(order.getOrderTime().plusMinutes(3));
+            } else {
+                order.setStatus(OrderStatus.WAITING);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.BaristaStatus;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderEventType;
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.repository.BaristaRepository;
+import com.example.coffee_shop.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * One {@link BaristaScheduler#processQueue()} tick over an in-memory working
+ * set: which orders move where, and what is written back.
+ */
+class BaristaSchedulerTest {
+
+    private static final Drink LATTE = new Drink(5L, "Latte", 4, 4.50, 0.12);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BaristaRepository baristaRepository = mock(BaristaRepository.class);
+    private final PriorityService priorityService = mock(PriorityService.class);
+    private final LiveQueueState liveQueueState = mock(LiveQueueState.class);
+    private final OrderEventJournal orderEventJournal = mock(OrderEventJournal.class);
+    private final SchedulingPolicyRegistry policyRegistry = mock(SchedulingPolicyRegistry.class);
+    private final DeadlineMonitor deadlineMonitor = mock(DeadlineMonitor.class);
+    private final List<Barista> baristas = List.of(barista(1), barista(2), barista(3));
+    private final List<Order> workingSet = new ArrayList<>();
+
+    private BaristaScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BaristaScheduler(orderRepository, baristaRepository, priorityService, liveQueueState,
+                mock(OrderReadModel.class), orderEventJournal, mock(OrderOutbox.class), policyRegistry,
+                deadlineMonitor, mock(PlatformTransactionManager.class));
+        when(liveQueueState.isReady()).thenReturn(true);
+        when(orderRepository.findWorkingSet(anyList())).thenReturn(workingSet);
+        when(baristaRepository.findByStatus(BaristaStatus.ACTIVE)).thenReturn(baristas);
+        when(priorityService.calculatePriority(any(), any())).thenReturn(1.0);
+        // Oldest order first, so picks are predictable
+        when(policyRegistry.getActive(SchedulingPolicyRegistry.Scope.LIVE)).thenReturn(SchedulingPolicy.scored(
+                "oldest", (o, now, avg) -> -o.getOrderTime().toEpochSecond(ZoneOffset.UTC)));
+        when(deadlineMonitor.escalate(anyList(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void skipsTheTickUntilTheWarmStartIsDone() {
+        when(liveQueueState.isReady()).thenReturn(false);
+
+        scheduler.processQueue();
+
+        verifyNoInteractions(orderRepository, baristaRepository);
+    }
+
+    @Test
+    void aTickStartedWhileAnotherIsRunningIsSkipped() {
+        when(orderRepository.findWorkingSet(anyList())).thenAnswer(invocation -> {
+            scheduler.processQueue(); // e.g. the scheduled tick during the warm start's one
+            return workingSet;
+        });
+
+        scheduler.processQueue();
+        scheduler.processQueue();
+
+        verify(orderRepository, times(2)).findWorkingSet(anyList());
+    }
+
+    @Test
+    void assignsWaitingOrdersToFreeBaristasOldestFirst() {
+        Order preparing = preparing(10, 1, 2);
+        Order newer = waiting(11, 3);
+        Order oldest = waiting(12, 8);
+        Order middle = waiting(13, 5);
+        workingSet.addAll(List.of(preparing, newer, oldest, middle));
+
+        scheduler.processQueue();
+
+        assertThat(oldest.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(oldest.getAssignedBarista().getId()).isEqualTo(2L);
+        assertThat(middle.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(middle.getAssignedBarista().getId()).isEqualTo(3L);
+        assertThat(newer.getStatus()).isEqualTo(OrderStatus.WAITING);
+        assertThat(newer.getAssignedBarista()).isNull();
+        assertThat(oldest.getEstimatedCompletionTime())
+                .isCloseTo(LocalDateTime.now().plusMinutes(LATTE.getPrepTimeMinutes()), within(5, ChronoUnit.SECONDS));
+
+        assertThat(assigned()).containsExactly(oldest, middle);
+        verify(orderEventJournal).record(oldest, OrderEventType.ASSIGNED);
+        verify(orderEventJournal).record(newer, OrderEventType.RESCORED);
+        verify(deadlineMonitor).recordAssignment(oldest);
+    }
+
+    @Test
+    void finishedOrdersBecomeReadyAndFreeTheirBarista() {
+        Order done = preparing(20, 1, 6); // 4-minute latte started 6 minutes ago
+        Order waiting = waiting(21, 1);
+        workingSet.addAll(List.of(done, waiting));
+
+        scheduler.processQueue();
+
+        assertThat(done.getStatus()).isEqualTo(OrderStatus.READY_TO_PICKUP);
+        verify(orderRepository).updateStatus(List.of(20L), OrderStatus.READY_TO_PICKUP);
+        verify(orderEventJournal).record(done, OrderEventType.READY);
+        assertThat(waiting.getAssignedBarista().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void noNewAssignmentsWhileAllBaristasArePreparing() {
+        workingSet.addAll(List.of(preparing(30, 1, 1), preparing(31, 2, 1), preparing(32, 3, 1)));
+        Order waiting = waiting(33, 9);
+        workingSet.add(waiting);
+
+        scheduler.processQueue();
+
+        assertThat(waiting.getStatus()).isEqualTo(OrderStatus.WAITING);
+        assertThat(assigned()).isEmpty();
+        verify(orderRepository, never()).updateStatus(anyList(), any());
+    }
+
+    @Test
+    void resetsPreparingOrdersThatBreakTheOnePerBaristaRule() {
+        Order unassigned = preparing(40, 1, 1);
+        unassigned.setAssignedBarista(null);
+        Order first = preparing(41, 2, 2);
+        Order second = preparing(42, 2, 1);
+        workingSet.addAll(List.of(unassigned, first, second));
+        // Nobody is free to pick them up again this tick
+        when(baristaRepository.findByStatus(BaristaStatus.ACTIVE)).thenReturn(List.of(baristas.get(1)));
+
+        scheduler.processQueue();
+
+        ArgumentCaptor<List<Long>> reset = ArgumentCaptor.captor();
+        verify(orderRepository).unassign(reset.capture(), eq(OrderStatus.WAITING));
+        assertThat(reset.getValue()).containsExactlyInAnyOrder(40L, 42L);
+        assertThat(second.getStatus()).isEqualTo(OrderStatus.WAITING);
+        assertThat(second.getAssignedBarista()).isNull();
+        assertThat(first.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        verify(orderEventJournal).record(second, OrderEventType.RESET);
+    }
+
+    @Test
+    void anEscalatedOrderGoesAheadOfThePolicysChoice() {
+        Order oldest = waiting(50, 8);
+        Order urgent = waiting(51, 2);
+        workingSet.addAll(List.of(oldest, urgent));
+        when(baristaRepository.findByStatus(BaristaStatus.ACTIVE)).thenReturn(List.of(baristas.get(0)));
+        when(deadlineMonitor.escalate(anyList(), any())).thenReturn(Optional.of(urgent));
+
+        scheduler.processQueue();
+
+        assertThat(assigned()).containsExactly(urgent);
+        assertThat(oldest.getStatus()).isEqualTo(OrderStatus.WAITING);
+    }
+
+    private List<Order> assigned() {
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.captor();
+        verify(orderRepository).assignBaristas(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Barista barista(long id) {
+        Barista barista = new Barista();
+        barista.setId(id);
+        barista.setName("Barista " + id);
+        return barista;
+    }
+
+    private static Order waiting(long id, int minutesAgo) {
+        Order order = new Order();
+        order.setId(id);
+        order.setDrink(LATTE);
+        order.setStatus(OrderStatus.WAITING);
+        order.setOrderTime(LocalDateTime.now().minusMinutes(minutesAgo));
+        order.setHardDeadline(order.getOrderTime().plusMinutes(10));
+        return order;
+    }
+
+    private Order preparing(long id, long baristaId, int startedMinutesAgo) {
+        Order order = waiting(id, startedMinutesAgo + 1);
+        order.setStatus(OrderStatus.PREPARING);
+        order.setAssignedBarista(baristas.get((int) baristaId - 1));
+        order.setEstimatedCompletionTime(LocalDateTime.now()
+                .minusMinutes(startedMinutesAgo).plusMinutes(LATTE.getPrepTimeMinutes()));
+        return order;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.coffee_shop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineCalendarTest {
+
+    private static final int HORIZON = DeadlineCalendar.HORIZON_SECONDS;
+
+    @Test
+    void dueWithinIsSortedAndBoundedByTheWindow() {
+        DeadlineCalendar calendar = new DeadlineCalendar();
+        calendar.advance(1_000);
+        calendar.add(1, 1_300);
+        calendar.add(2, 1_010);
+        calendar.add(3, 1_600);
+        calendar.add(4, 1_900); // past the horizon, in overflow
+
+        assertThat(calendar.dueWithin(1_000, 300)).containsExactly(2L, 1L);
+        assertThat(calendar.dueWithin(1_000, HORIZON)).containsExactly(2L, 1L, 3L);
+        assertThat(calendar.size()).isEqualTo(4);
+    }
+
+    @Test
+    void advanceReportsEachBreachOnce() {
+        DeadlineCalendar calendar = new DeadlineCalendar();
+        calendar.advance(0);
+        calendar.add(1, 5);
+        calendar.add(2, 5);
+        calendar.add(3, 9);
+
+        assertThat(calendar.advance(5)).isEmpty();
+        assertThat(calendar.advance(6)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(calendar.advance(6)).isEmpty();
+        assertThat(calendar.advance(100)).containsExactly(3L);
+        assertThat(calendar.size()).isZero();
+    }
+
+    @Test
+    void deadlineAlreadySweptIsReportedByTheNextAdvance() {
+        DeadlineCalendar calendar = new DeadlineCalendar();
+        calendar.advance(50);
+        calendar.add(1, 10);
+
+        assertThat(calendar.dueWithin(50, 0)).containsExactly(1L);
+        assertThat(calendar.advance(51)).containsExactly(1L);
+    }
+
+    @Test
+    void pauseLongerThanTheHorizonSweepsEverything() {
+        DeadlineCalendar calendar = new DeadlineCalendar();
+        calendar.advance(0);
+        for (long id = 0; id < 3 * HORIZON; id++) {
+            calendar.add(id, id);
+        }
+
+        assertThat(calendar.advance(10 * HORIZON)).hasSize(3 * HORIZON);
+        assertThat(calendar.size()).isZero();
+    }
+
+    @Test
+    void removeAndReAddReplaceTheDeadline() {
+        DeadlineCalendar calendar = new DeadlineCalendar();
+        calendar.advance(0);
+        calendar.add(1, 100);
+        calendar.add(1, 2_000);
+        calendar.remove(2); // unknown id is a no-op
+
+        assertThat(calendar.dueWithin(0, HORIZON)).isEmpty();
+        calendar.remove(1);
+        assertThat(calendar.advance(5_000)).isEmpty();
+    }
+
+    /**
+     * Random adds, removes, window queries and clock moves (including pauses
+     * past the horizon) against a plain map of deadlines.
+     */
+    @Test
+    void matchesBruteForceOverRandomOperations() {
+        Random random = new Random(46);
+        DeadlineCalendar calendar = new DeadlineCalendar();
+        Map<Long, Long> expected = new HashMap<>();
+        long now = 1_700_000_000L;
+        boolean started = false;
+
+        for (int op = 0; op < 200_000; op++) {
+            int kind = random.nextInt(100);
+            if (kind < 45) {
+                long id = random.nextInt(2_000);
+                long deadline = now - 30 + random.nextInt(HORIZON * 2);
+                calendar.add(id, deadline);
+                expected.put(id, started ? Math.max(deadline, now) : deadline);
+            } else if (kind < 65) {
+                long id = random.nextInt(2_000);
+                calendar.remove(id);
+                expected.remove(id);
+            } else if (kind < 85) {
+                int seconds = random.nextInt(HORIZON + 1);
+                long last = now + seconds;
+                List<Long> due = calendar.dueWithin(now, seconds);
+                assertThat(due).as("op %d", op).containsExactlyInAnyOrderElementsOf(
+                        expected.entrySet().stream().filter(e -> e.getValue() <= last).map(Map.Entry::getKey).toList());
+                for (int i = 1; i < due.size(); i++) {
+                    assertThat(expected.get(due.get(i - 1))).isLessThanOrEqualTo(expected.get(due.get(i)));
+                }
+            } else {
+                long step = random.nextInt(50) == 0 ? HORIZON + random.nextInt(3 * HORIZON) : random.nextInt(4);
+                now += step;
+                long sweptTo = now;
+                List<Long> breached = calendar.advance(now);
+                List<Long> overdue = expected.entrySet().stream()
+                        .filter(e -> e.getValue() < sweptTo).map(Map.Entry::getKey).toList();
+                assertThat(breached).as("op %d", op).containsExactlyInAnyOrderElementsOf(overdue);
+                overdue.forEach(expected::remove);
+                started = true;
+            }
+            assertThat(calendar.size()).isEqualTo(expected.size());
+        }
+    }
+}
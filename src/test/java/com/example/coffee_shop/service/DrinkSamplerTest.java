@@ -0,0 +1,97 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.model.Drink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class DrinkSamplerTest {
+
+    private static final List<Drink> MENU = List.of(
+            new Drink(1L, "Cold Brew", 1, 4.50, 0.25),
+            new Drink(2L, "Espresso", 2, 3.00, 0.20),
+            new Drink(3L, "Americano", 2, 3.50, 0.15),
+            new Drink(4L, "Cappuccino", 4, 4.50, 0.20),
+            new Drink(5L, "Latte", 4, 4.50, 0.12),
+            new Drink(6L, "Specialty (Mocha)", 6, 5.50, 0.08));
+
+    @Test
+    void drawsInProportionToDemandFrequency() {
+        DrinkSampler sampler = new DrinkSampler(MENU);
+        SplittableRandom random = new SplittableRandom(7);
+        int draws = 1_000_000;
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < draws; i++) {
+            counts.merge(sampler.sample(random).getId(), 1, Integer::sum);
+        }
+
+        for (Drink drink : MENU) {
+            assertThat(counts.getOrDefault(drink.getId(), 0) / (double) draws)
+                    .as(drink.getName())
+                    .isCloseTo(drink.getDemandFrequency(), within(0.005));
+        }
+    }
+
+    @Test
+    void neverDrawsADrinkWithZeroDemand() {
+        List<Drink> menu = List.of(
+                new Drink(1L, "Cold Brew", 1, 4.50, 0.5),
+                new Drink(2L, "Seasonal", 3, 5.00, 0.0),
+                new Drink(3L, "Latte", 4, 4.50, 0.5));
+        DrinkSampler sampler = new DrinkSampler(menu);
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(sampler.sample(random).getId()).isNotEqualTo(2L);
+        }
+    }
+
+    @Test
+    void drawsByACustomWeightInsteadOfDemand() {
+        DrinkSampler sampler = new DrinkSampler(MENU, d -> d.getId() == 6L ? 3.0 : d.getId() == 3L ? 0.0 : 1.0);
+        SplittableRandom random = new SplittableRandom(13);
+        int draws = 800_000;
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < draws; i++) {
+            counts.merge(sampler.sample(random).getId(), 1, Integer::sum);
+        }
+
+        assertThat(counts).doesNotContainKey(3L);
+        assertThat(counts.get(6L) / (double) draws).isCloseTo(3.0 / 7.0, within(0.005));
+        assertThat(counts.get(1L) / (double) draws).isCloseTo(1.0 / 7.0, within(0.005));
+        assertThatThrownBy(() -> new DrinkSampler(MENU, d -> d.getId() == 1L ? -1.0 : 1.0))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void sameMenuAndSeedGiveTheSameDrinksWhateverTheListOrder() {
+        List<Drink> shuffled = new ArrayList<>(MENU);
+        Collections.shuffle(shuffled, new java.util.Random(3));
+        DrinkSampler a = new DrinkSampler(MENU);
+        DrinkSampler b = new DrinkSampler(shuffled);
+        SplittableRandom ra = new SplittableRandom(42);
+        SplittableRandom rb = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(b.sample(rb).getId()).isEqualTo(a.sample(ra).getId());
+        }
+    }
+
+    @Test
+    void rejectsAnEmptyMenuAndUnusableFrequencies() {
+        assertThatThrownBy(() -> new DrinkSampler(List.of())).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new DrinkSampler(List.of(new Drink(1L, "Espresso", 2, 3.00, 0.0))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new DrinkSampler(List.of(
+                new Drink(1L, "Espresso", 2, 3.00, -0.5),
+                new Drink(2L, "Latte", 4, 4.50, 1.0))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
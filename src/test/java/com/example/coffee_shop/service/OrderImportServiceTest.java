@@ -0,0 +1,163 @@
+package com.example.coffee_shop.service;
+
+import com.example.coffee_shop.dto.ImportReportDTO;
+import com.example.coffee_shop.model.Barista;
+import com.example.coffee_shop.model.BaristaStatus;
+import com.example.coffee_shop.model.Drink;
+import com.example.coffee_shop.model.Order;
+import com.example.coffee_shop.model.OrderStatus;
+import com.example.coffee_shop.repository.BaristaRepository;
+import com.example.coffee_shop.repository.DrinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link OrderImportService} against an in-memory stand-in for the two
+ * tables it writes: CSV edge cases, and replays importing nothing twice.
+ */
+class OrderImportServiceTest {
+
+    private static final String HEADER = "drink_id,barista_id,status,order_time,completed_time,customer_name\n";
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final DrinkRepository drinkRepository = mock(DrinkRepository.class);
+    private final BaristaRepository baristaRepository = mock(BaristaRepository.class);
+
+    private OrderImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        when(drinkRepository.findAll()).thenReturn(List.of(new Drink(1L, "Espresso", 2, 3.00, 0.20)));
+        when(baristaRepository.findAll()).thenReturn(List.of(new Barista(1L, "Alice", BaristaStatus.ACTIVE, 0)));
+        importService = new OrderImportService(jdbcTemplate, drinkRepository, baristaRepository,
+                mock(ColumnarHistoryStore.class), mock(TimeSlotRollupService.class),
+                mock(PlatformTransactionManager.class), 2);
+    }
+
+    @Test
+    void quotedFieldsKeepTheirCommasAndDoubledQuotes() throws IOException {
+        ImportReportDTO report = importCsv(HEADER
+                + "1,1,COMPLETED,2026-01-05T08:00:00,2026-01-05T08:03:00,\"Smith, Jane\"\n"
+                + "1,1,COMPLETED,2026-01-05T08:01:00,2026-01-05T08:04:00,\"The \"\"Usual\"\"\"\n");
+
+        assertThat(report.getRejected()).isZero();
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(jdbcTemplate.orders).extracting(Order::getCustomerName)
+                .containsExactly("Smith, Jane", "The \"Usual\"");
+    }
+
+    @Test
+    void crlfLineEndingsAreNotPartOfTheLastField() throws IOException {
+        ImportReportDTO report = importCsv(HEADER.replace("\n", "\r\n")
+                + "1,1,COMPLETED,2026-01-05T08:00:00,2026-01-05T08:03:00,Ann\r\n"
+                + "\r\n"
+                + "1,,CANCELLED,2026-01-05T08:01:00,,Bob\r\n");
+
+        assertThat(report.getRowsRead()).isEqualTo(2);
+        assertThat(report.getRejected()).isZero();
+        assertThat(jdbcTemplate.orders).extracting(Order::getCustomerName).containsExactly("Ann", "Bob");
+        assertThat(jdbcTemplate.orders.get(1).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void anUnterminatedQuoteRejectsTheLastRowOnly() throws IOException {
+        ImportReportDTO report = importCsv(HEADER
+                + "1,1,COMPLETED,2026-01-05T08:00:00,2026-01-05T08:03:00,Ann\n"
+                + "1,1,COMPLETED,2026-01-05T08:01:00,2026-01-05T08:04:00,\"Bob\n");
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getRow()).isEqualTo(2);
+                    assertThat(error.getMessage()).contains("Unterminated");
+                });
+    }
+
+    @Test
+    void replayingAFileReportsDuplicatesAndInsertsNothingTwice() throws IOException {
+        String csv = HEADER
+                + "1,1,COMPLETED,2026-01-05T08:00:00,2026-01-05T08:03:00,Ann\n"
+                + "1,1,COMPLETED,2026-01-05T08:01:00,2026-01-05T08:04:00,Bob\n"
+                + "1,1,COMPLETED,2026-01-05T08:02:00,2026-01-05T08:05:00,Cat\n";
+
+        ImportReportDTO first = importCsv(csv);
+        ImportReportDTO replay = importCsv(csv);
+
+        assertThat(first.getImported()).isEqualTo(3);
+        assertThat(first.getDuplicates()).isZero();
+        assertThat(replay.getImported()).isZero();
+        assertThat(replay.getDuplicates()).isEqualTo(3);
+        assertThat(jdbcTemplate.orders).hasSize(3);
+        assertThat(jdbcTemplate.keys).hasSize(3);
+    }
+
+    @Test
+    void theSameRowAsNdjsonIsADuplicateOfItsCsvImport() throws IOException {
+        importCsv(HEADER + "1,1,COMPLETED,2026-01-05T08:00:00,2026-01-05T08:03:00,Ann\n");
+
+        ImportReportDTO replay = importOrders("{\"drink_id\":1,\"barista_id\":1,\"status\":\"COMPLETED\","
+                + "\"order_time\":\"2026-01-05T08:00:00\",\"completed_time\":\"2026-01-05T08:03:00\","
+                + "\"customer_name\":\"Ann\",\"drink_name\":\"Espresso\"}\n", OrderImportService.FORMAT_NDJSON);
+
+        assertThat(replay.getDuplicates()).isEqualTo(1);
+        assertThat(jdbcTemplate.orders).hasSize(1);
+    }
+
+    private ImportReportDTO importCsv(String csv) throws IOException {
+        return importOrders(csv, OrderImportService.FORMAT_CSV);
+    }
+
+    private ImportReportDTO importOrders(String content, String format) throws IOException {
+        return importService.importOrders(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                format);
+    }
+
+    /** Keeps coffee_import_keys and coffee_orders inserts in memory. */
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+        private final Set<String> keys = new HashSet<>();
+        private final List<Order> orders = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss) {
+            if (sql.startsWith("INSERT INTO coffee_import_keys")) {
+                for (T key : batchArgs) {
+                    assertThat(keys.add((String) key)).as("duplicate import key").isTrue();
+                }
+            } else {
+                orders.addAll((Collection<Order>) batchArgs);
+            }
+            return new int[0][];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            List<T> known = new ArrayList<>();
+            for (Object key : args) {
+                if (keys.contains(key)) {
+                    known.add((T) key);
+                }
+            }
+            return known;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.coffee_shop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityFenwickTreeTest {
+
+    private static final int BUCKETS = PriorityFenwickTree.BUCKETS;
+
+    @Test
+    void higherScoresGetLowerBuckets() {
+        assertThat(PriorityFenwickTree.bucketOf(PriorityFenwickTree.MAX_SCORE)).isZero();
+        assertThat(PriorityFenwickTree.bucketOf(1_000.0)).isZero();
+        assertThat(PriorityFenwickTree.bucketOf(255.9)).isZero();
+        assertThat(PriorityFenwickTree.bucketOf(255.7)).isEqualTo(1);
+        assertThat(PriorityFenwickTree.bucketOf(0.0)).isEqualTo(BUCKETS - 1);
+        assertThat(PriorityFenwickTree.bucketOf(-5.0)).isEqualTo(BUCKETS - 1);
+        assertThat(PriorityFenwickTree.bucketOf(10.0)).isLessThan(PriorityFenwickTree.bucketOf(9.0));
+    }
+
+    @Test
+    void prefixSumsCoverBucketsUpToAndIncludingTheGivenOne() {
+        PriorityFenwickTree tree = new PriorityFenwickTree();
+        tree.add(0, 4, 1);
+        tree.add(5, 2, 1);
+        tree.add(5, 6, 1);
+        tree.add(BUCKETS - 1, 1, 1);
+
+        assertThat(tree.countThrough(0)).isEqualTo(1);
+        assertThat(tree.prepMinutesThrough(4)).isEqualTo(4);
+        assertThat(tree.countThrough(5)).isEqualTo(3);
+        assertThat(tree.prepMinutesThrough(5)).isEqualTo(12);
+        assertThat(tree.totalPrepMinutes()).isEqualTo(13);
+
+        tree.add(5, -2, -1);
+        assertThat(tree.countThrough(BUCKETS - 1)).isEqualTo(3);
+        assertThat(tree.totalPrepMinutes()).isEqualTo(11);
+
+        tree.clear();
+        assertThat(tree.countThrough(BUCKETS - 1)).isZero();
+        assertThat(tree.totalPrepMinutes()).isZero();
+    }
+
+    @Test
+    void matchesBruteForceOverRandomUpdates() {
+        Random random = new Random(41);
+        PriorityFenwickTree tree = new PriorityFenwickTree();
+        long[] prep = new long[BUCKETS];
+        long[] count = new long[BUCKETS];
+
+        for (int op = 0; op < 20_000; op++) {
+            int bucket = random.nextInt(BUCKETS);
+            if (count[bucket] > 0 && random.nextBoolean()) {
+                // Remove one order, as LiveQueueState does when it leaves the queue
+                long minutes = prep[bucket] / count[bucket];
+                tree.add(bucket, (int) -minutes, -1);
+                prep[bucket] -= minutes;
+                count[bucket]--;
+            } else {
+                int minutes = 1 + random.nextInt(6);
+                tree.add(bucket, minutes, 1);
+                prep[bucket] += minutes;
+                count[bucket]++;
+            }
+
+            int query = random.nextInt(BUCKETS);
+            long expectedPrep = 0;
+            long expectedCount = 0;
+            for (int b = 0; b <= query; b++) {
+                expectedPrep += prep[b];
+                expectedCount += count[b];
+            }
+            assertThat(tree.prepMinutesThrough(query)).as("op %d", op).isEqualTo(expectedPrep);
+            assertThat(tree.countThrough(query)).as("op %d", op).isEqualTo(expectedCount);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.coffee_shop.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> coalescer.get("stats", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            // Hold the computation until every other caller has joined it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (calls("joined") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("computed")).isEqualTo(1);
+        assertThat(calls("joined")).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void reusesAFinishedResultWithinTheStalenessWindow() {
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(coalescer.get("stats", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(coalescer.get("stats", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(coalescer.get("other", loads::incrementAndGet)).isEqualTo(2);
+        assertThat(calls("cached")).isEqualTo(1);
+    }
+
+    @Test
+    void recomputesOnceTheResultIsStale() {
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(coalescer.get("stats", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(coalescer.get("stats", loads::incrementAndGet)).isEqualTo(2);
+        assertThat(calls("cached")).isZero();
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 60_000);
+
+        assertThatThrownBy(() -> coalescer.get("stats", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+        assertThat(coalescer.get("stats", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void rejectsANegativeStalenessWindow() {
+        assertThatThrownBy(() -> new RequestCoalescer(registry, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private long calls(String outcome) {
+        return (long) registry.find("coffee.coalescing.calls").tag("outcome", outcome).counters().stream()
+                .mapToDouble(c -> c.count())
+                .sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}